@@ -0,0 +1,92 @@
+package com.avilixradiomod.client.audio;
+
+import com.avilixradiomod.audio.ResamplerQuality;
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame cost of each {@link DecodeQuality} tier: decode of a 44.1 kHz stereo frame plus the
+ * float conversion, a muffled effects chain and resampling to a 48 kHz line, the way the player
+ * runs them for a far stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class DecodeQualityBenchmark {
+
+    private static final int FRAMES = 64;
+    private static final int LINE_RATE = 48_000;
+
+    @Param({"FULL", "MONO", "HALF_RATE"})
+    public DecodeQuality quality;
+
+    private final byte[] mp3 = SyntheticMp3.frames(FRAMES, 42L);
+    private final EffectsChain effects = new EffectsChain();
+    private final Resampler resampler = new Resampler();
+    private final float[] work = new float[1152 * 2];
+    private float[] out;
+
+    private Bitstream bitstream;
+    private Decoder decoder;
+    private boolean mono;
+
+    @Setup(Level.Invocation)
+    public void open() {
+        bitstream = new Bitstream(new ByteArrayInputStream(mp3));
+        decoder = new Decoder();
+        mono = false;
+    }
+
+    /** Decodes and processes {@value #FRAMES} frames; divide by that for the per-frame cost. */
+    @Benchmark
+    public float[] decodeAndProcess() throws Exception {
+        for (int f = 0; f < FRAMES; f++) {
+            if (quality.mono != mono && Layer3Channels.setMono(decoder, quality.mono)) mono = quality.mono;
+
+            final Header h = bitstream.readFrame();
+            final SampleBuffer buf = (SampleBuffer) decoder.decodeFrame(h, bitstream);
+            final short[] samples = buf.getBuffer();
+            final int len = buf.getBufferLength();
+            for (int i = 0; i < len; i += 2) {
+                final float l = samples[i];
+                work[i] = l;
+                work[i + 1] = mono ? l : samples[i + 1];
+            }
+
+            int n = len;
+            int rate = buf.getSampleFrequency();
+            if (quality.halfRate) {
+                for (int i = 0, j = 0; j < len / 2; i += 4, j += 2) {
+                    work[j] = (work[i] + work[i + 2]) * 0.5f;
+                    work[j + 1] = (work[i + 1] + work[i + 3]) * 0.5f;
+                }
+                n = len / 2;
+                rate /= 2;
+            }
+
+            effects.configure(rate, 0.4f, 0, 0, 0);
+            effects.process(work, n);
+            resampler.configure(rate, LINE_RATE, ResamplerQuality.MEDIUM);
+            if (out == null || out.length < resampler.maxOutputFrames(n / 2) * 2) {
+                out = new float[resampler.maxOutputFrames(1152) * 2];
+            }
+            resampler.process(work, n / 2, out);
+            bitstream.closeFrame();
+        }
+        return out;
+    }
+}
@@ -0,0 +1,84 @@
+package com.avilixradiomod.client.audio;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link EffectsChain} per MP3 frame, next to the cost of decoding that frame.
+ *
+ * Budget: with every stage active (all three EQ bands and the low-pass), {@code effectsChain} must
+ * stay below 25% of {@code decodeFrame} (after subtracting {@code copyOnly}). Both work on one
+ * 1152-sample stereo frame; the decode input is {@link SyntheticMp3}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EffectsChainBenchmark {
+
+    /** One Layer III frame: 1152 sample frames, interleaved stereo. */
+    private static final int FRAME_SAMPLES = 1152 * 2;
+    private static final int FRAMES_PER_DECODE = 64;
+
+    private byte[] mp3;
+
+    private final EffectsChain chain = new EffectsChain();
+    private final float[] source = new float[FRAME_SAMPLES];
+    private final float[] pcm = new float[FRAME_SAMPLES];
+
+    @Setup
+    public void setup() {
+        mp3 = SyntheticMp3.frames(FRAMES_PER_DECODE, 42L);
+
+        // Worst case: no stage bypassed.
+        chain.configure(44_100, 0.5f, 6, -4, 3);
+
+        final Random random = new Random(42);
+        for (int i = 0; i < FRAME_SAMPLES; i++) source[i] = (random.nextFloat() * 2f - 1f) * 8_000f;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES_PER_DECODE)
+    public int decodeFrame() throws Exception {
+        // JLayer binds its layer decoder to the first Bitstream, so each pass needs a fresh Decoder
+        // (as every new connection does); its setup is spread over the frames.
+        final Bitstream bs = new Bitstream(new ByteArrayInputStream(mp3));
+        final Decoder decoder = new Decoder();
+        int samples = 0;
+        Header h;
+        while ((h = bs.readFrame()) != null) {
+            final SampleBuffer out = (SampleBuffer) decoder.decodeFrame(h, bs);
+            samples += out.getBufferLength();
+            bs.closeFrame();
+        }
+        return samples;
+    }
+
+    @Benchmark
+    public float[] effectsChain() {
+        // Fresh input every time: running the boosted EQ over its own output would keep growing it.
+        System.arraycopy(source, 0, pcm, 0, FRAME_SAMPLES);
+        chain.process(pcm, FRAME_SAMPLES);
+        return pcm;
+    }
+
+    /** The copy in {@link #effectsChain()} on its own, to subtract. */
+    @Benchmark
+    public float[] copyOnly() {
+        System.arraycopy(source, 0, pcm, 0, FRAME_SAMPLES);
+        return pcm;
+    }
+}
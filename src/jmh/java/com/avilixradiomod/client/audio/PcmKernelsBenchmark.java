@@ -0,0 +1,79 @@
+package com.avilixradiomod.client.audio;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gain stage of one 1152-sample stereo frame: the per-sample {@code Math.round} loop the player
+ * used before {@link PcmKernels}, against both kernel implementations (to float, gain, back to
+ * short), plus the mix-accumulate kernel.
+ *
+ * Runs with {@code --add-modules jdk.incubator.vector} (see build.gradle); {@code impl=vector} fails
+ * in setup without it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PcmKernelsBenchmark {
+
+    private static final int FRAME_SAMPLES = 1152 * 2;
+    private static final float GAIN_L = 0.64f;
+    private static final float GAIN_R = 0.36f;
+
+    @Param({"scalar", "vector"})
+    public String impl;
+
+    private PcmKernels kernels;
+
+    private final short[] samples = new short[FRAME_SAMPLES];
+    private final float[] work = new float[FRAME_SAMPLES];
+    private final float[] mix = new float[FRAME_SAMPLES];
+    private final short[] out = new short[FRAME_SAMPLES];
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        kernels = impl.equals("vector")
+                ? (PcmKernels) Class.forName("com.avilixradiomod.client.audio.VectorPcmKernels").getDeclaredConstructor().newInstance()
+                : new PcmKernels.Scalar();
+
+        final Random random = new Random(42);
+        for (int i = 0; i < FRAME_SAMPLES; i++) samples[i] = (short) random.nextInt(65536);
+        kernels.toFloat(samples, work, FRAME_SAMPLES);
+    }
+
+    /** The old loop; doesn't depend on {@code impl}. */
+    @Benchmark
+    public short[] roundLoop() {
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            final float gain = (i & 1) == 0 ? GAIN_L : GAIN_R;
+            int scaled = Math.round(samples[i] * gain);
+            if (scaled > 32767) scaled = 32767;
+            if (scaled < -32768) scaled = -32768;
+            out[i] = (short) scaled;
+        }
+        return out;
+    }
+
+    @Benchmark
+    public short[] kernels() {
+        kernels.toFloat(samples, work, FRAME_SAMPLES);
+        kernels.gainStereo(work, FRAME_SAMPLES, GAIN_L, GAIN_R);
+        kernels.toShortSaturating(work, out, FRAME_SAMPLES);
+        return out;
+    }
+
+    @Benchmark
+    public float[] mixAccumulate() {
+        kernels.mixAccumulate(mix, work, FRAME_SAMPLES, 0.5f);
+        return mix;
+    }
+}
@@ -0,0 +1,57 @@
+package com.avilixradiomod.client.audio;
+
+import com.avilixradiomod.audio.ResamplerQuality;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Resampler} per 1152-sample stereo MP3 frame, for every {@link ResamplerQuality}
+ * and the rate pairs a station and an output line commonly have. Compare with
+ * {@code EffectsChainBenchmark.decodeFrame} to see what a preset adds per stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ResamplerBenchmark {
+
+    private static final int FRAME = 1152;
+
+    @Param({"FAST", "MEDIUM", "HIGH"})
+    public ResamplerQuality quality;
+
+    /** Station rate : output rate. */
+    @Param({"44100:48000", "48000:44100", "32000:48000", "22050:48000"})
+    public String rates;
+
+    private final Resampler resampler = new Resampler();
+    private final float[] in = new float[FRAME * 2];
+    private float[] out;
+
+    @Setup
+    public void setup() {
+        final int colon = rates.indexOf(':');
+        final int inRate = Integer.parseInt(rates.substring(0, colon));
+        final int outRate = Integer.parseInt(rates.substring(colon + 1));
+        resampler.configure(inRate, outRate, quality);
+        out = new float[resampler.maxOutputFrames(FRAME) * 2];
+
+        final Random random = new Random(42);
+        for (int i = 0; i < in.length; i++) in[i] = (random.nextFloat() * 2f - 1f) * 8_000f;
+    }
+
+    /** Streaming, as in the player: the history carries over from the previous frame. */
+    @Benchmark
+    public float[] processFrame() {
+        resampler.process(in, FRAME, out);
+        return out;
+    }
+}
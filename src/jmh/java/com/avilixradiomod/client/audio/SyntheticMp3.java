@@ -0,0 +1,77 @@
+package com.avilixradiomod.client.audio;
+
+import java.util.Random;
+
+/**
+ * Builds decodable MPEG-1 Layer III frames (128 kbps, 44.1 kHz, stereo), so benchmarks get a
+ * realistic decode load without shipping an audio file.
+ *
+ * Each granule and channel gets fixed side info (long blocks, Huffman table 13 for 60 big-value
+ * pairs, the rest count1) and random main data. That decodes to noise across the lower part of the
+ * spectrum, so Huffman decoding, requantization, stereo processing, IMDCT and synthesis all do real
+ * work, as they would for music at this bitrate.
+ */
+final class SyntheticMp3 {
+    private SyntheticMp3() {}
+
+    /** 144 * 128000 / 44100, no padding. */
+    static final int FRAME_BYTES = 417;
+
+    private static final int HEADER_BYTES = 4;
+    private static final int SIDE_INFO_BYTES = 32;
+
+    static byte[] frames(int count, long seed) {
+        final Random random = new Random(seed);
+        final byte[] out = new byte[count * FRAME_BYTES];
+        for (int f = 0; f < count; f++) {
+            final int start = f * FRAME_BYTES;
+            // Sync, MPEG-1, Layer III, no CRC | 128 kbps, 44.1 kHz, no padding | stereo.
+            out[start] = (byte) 0xFF;
+            out[start + 1] = (byte) 0xFB;
+            out[start + 2] = (byte) 0x90;
+            out[start + 3] = (byte) 0x00;
+
+            final BitWriter side = new BitWriter(out, start + HEADER_BYTES);
+            side.put(0, 9); // main_data_begin: no bit reservoir
+            side.put(0, 3); // private bits
+            side.put(0, 8); // scfsi, 4 bits per channel
+            for (int gr = 0; gr < 2; gr++) {
+                for (int ch = 0; ch < 2; ch++) {
+                    side.put(760, 12); // part2_3_length: a quarter of the main data
+                    side.put(60, 9); // big_values (pairs)
+                    side.put(190, 8); // global_gain
+                    side.put(0, 4); // scalefac_compress: no scalefactor bits
+                    side.put(0, 1); // window_switching_flag: long blocks
+                    side.put(13, 5);
+                    side.put(13, 5);
+                    side.put(13, 5); // table_select for the three regions
+                    side.put(7, 4); // region0_count
+                    side.put(7, 3); // region1_count
+                    side.put(0, 3); // preflag, scalefac_scale, count1table_select
+                }
+            }
+
+            for (int i = start + HEADER_BYTES + SIDE_INFO_BYTES; i < start + FRAME_BYTES; i++) {
+                out[i] = (byte) random.nextInt(256);
+            }
+        }
+        return out;
+    }
+
+    private static final class BitWriter {
+        private final byte[] buf;
+        private int bit;
+
+        BitWriter(byte[] buf, int byteOffset) {
+            this.buf = buf;
+            this.bit = byteOffset * 8;
+        }
+
+        void put(int value, int bits) {
+            for (int i = bits - 1; i >= 0; i--) {
+                if ((value >> i & 1) != 0) buf[bit >> 3] |= (byte) (0x80 >> (bit & 7));
+                bit++;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.avilixradiomod.server.data;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load and save of one {@link RadioStateShard}: the columnar format 2 against the old per-entry
+ * list (format 1), at 100k radios by default.
+ *
+ * {@code saveLegacy} rebuilds the format 1 list the way the old store wrote it; it is only here as
+ * the baseline for {@code saveColumnar}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class RadioStateShardBenchmark {
+
+    @Param({"100000"})
+    public int entries;
+
+    /** Distinct station URLs among the radios. */
+    @Param({"64"})
+    public int stations;
+
+    private RadioStateShard shard;
+    private CompoundTag columnar;
+    private CompoundTag legacy;
+
+    @Setup
+    public void setup() {
+        shard = new RadioStateShard();
+        final Random random = new Random(42);
+        final String[] urls = new String[stations];
+        for (int i = 0; i < stations; i++) urls[i] = "https://radio.example.com/station/" + i + "/stream.mp3";
+
+        while (shard.byPos.size() < entries) {
+            // One region: 512x512 blocks.
+            final long pos = BlockPos.asLong(random.nextInt(512), -64 + random.nextInt(384), random.nextInt(512));
+            shard.put(pos, new RadioWorldState.Entry(urls[random.nextInt(stations)], random.nextBoolean(), random.nextInt(101)));
+        }
+
+        columnar = shard.save(new CompoundTag(), null);
+        legacy = saveLegacy();
+    }
+
+    @Benchmark
+    public CompoundTag saveColumnar() {
+        return shard.save(new CompoundTag(), null);
+    }
+
+    @Benchmark
+    public CompoundTag saveLegacy() {
+        return legacyTag(shard);
+    }
+
+    @Benchmark
+    public RadioStateShard loadColumnar() {
+        return RadioStateShard.load(columnar, null);
+    }
+
+    @Benchmark
+    public RadioStateShard loadLegacy() {
+        return RadioStateShard.load(legacy, null);
+    }
+
+    /** Format 1, as the old single-file store wrote it. */
+    static CompoundTag legacyTag(RadioStateShard shard) {
+        final ListTag list = new ListTag();
+        shard.byPos.long2ObjectEntrySet().forEach(e -> {
+            final CompoundTag c = new CompoundTag();
+            c.putLong("Pos", e.getLongKey());
+            c.putString("Url", e.getValue().url());
+            c.putBoolean("Playing", e.getValue().playing());
+            c.putInt("Volume", e.getValue().volume());
+            list.add(c);
+        });
+        final CompoundTag tag = new CompoundTag();
+        tag.put("Entries", list);
+        return tag;
+    }
+}
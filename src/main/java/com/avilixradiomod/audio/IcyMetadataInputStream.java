@@ -0,0 +1,147 @@
+package com.avilixradiomod.audio;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strips Shoutcast/Icecast in-band metadata ("Icy-MetaData: 1") from an MP3 byte stream.
+ *
+ * Audio bytes are read straight into the caller's buffer (never copied through an extra buffer);
+ * only the small metadata blocks go through {@link #metaBuf}. The current title is published as an
+ * immutable {@link NowPlaying} snapshot, so any thread can read it without locking.
+ */
+public final class IcyMetadataInputStream extends FilterInputStream {
+
+    /** Max metadata block: length byte * 16. */
+    private static final int MAX_META_BYTES = 255 * 16;
+
+    private final int metaInt;
+    private final byte[] metaBuf = new byte[MAX_META_BYTES];
+
+    /** Audio bytes left until the next metadata length byte. */
+    private int audioLeft;
+
+    private volatile @Nullable NowPlaying nowPlaying;
+
+    public IcyMetadataInputStream(InputStream in, int metaInt) {
+        super(in);
+        this.metaInt = metaInt;
+        this.audioLeft = metaInt;
+    }
+
+    @Nullable
+    public NowPlaying nowPlaying() {
+        return nowPlaying;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (audioLeft == 0 && !consumeMetadata()) return -1;
+
+        int b = in.read();
+        if (b >= 0) audioLeft--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (audioLeft == 0 && !consumeMetadata()) return -1;
+
+        int n = in.read(b, off, Math.min(len, audioLeft));
+        if (n > 0) audioLeft -= n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Must go through read() so the metadata counter stays in sync.
+        long skipped = 0;
+        while (skipped < n) {
+            if (read() < 0) break;
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return Math.min(in.available(), audioLeft);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /** Reads one metadata block. Returns false on EOF. */
+    private boolean consumeMetadata() throws IOException {
+        int lenByte = in.read();
+        if (lenByte < 0) return false;
+
+        int len = lenByte * 16;
+        int got = 0;
+        while (got < len) {
+            int n = in.read(metaBuf, got, len - got);
+            if (n < 0) return false;
+            got += n;
+        }
+
+        audioLeft = metaInt;
+
+        // Empty block = "no change".
+        if (len > 0) {
+            String title = parseStreamTitle(metaBuf, len);
+            if (title != null) {
+                NowPlaying prev = nowPlaying;
+                if (prev == null || !prev.title().equals(title)) {
+                    nowPlaying = new NowPlaying(title, System.currentTimeMillis());
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Extracts {@code StreamTitle='...';} from a metadata block. */
+    @Nullable
+    private static String parseStreamTitle(byte[] buf, int len) {
+        // Blocks are NUL-padded to a multiple of 16.
+        while (len > 0 && buf[len - 1] == 0) len--;
+        String meta = new String(buf, 0, len, StandardCharsets.UTF_8);
+
+        final String key = "StreamTitle='";
+        int start = meta.indexOf(key);
+        if (start < 0) return null;
+        start += key.length();
+
+        // Titles may contain "';" themselves: the value ends at the "';" that ends the block or
+        // starts the next field (StreamUrl='...').
+        int end = meta.indexOf("';", start);
+        while (end >= 0 && !endsField(meta, end + 2)) end = meta.indexOf("';", end + 1);
+        if (end < 0) end = meta.lastIndexOf('\'');
+        if (end < start) return null;
+
+        return meta.substring(start, end).trim();
+    }
+
+    /** True if {@code meta} is empty from {@code i} on, or continues with another {@code Key='} field. */
+    private static boolean endsField(String meta, int i) {
+        int j = i;
+        while (j < meta.length() && Character.isLetter(meta.charAt(j))) j++;
+        if (j == meta.length()) return j == i;
+        return j > i && meta.startsWith("='", j);
+    }
+}
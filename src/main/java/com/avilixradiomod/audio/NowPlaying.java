@@ -0,0 +1,4 @@
+package com.avilixradiomod.audio;
+
+/** Immutable "now playing" snapshot taken from ICY stream metadata. */
+public record NowPlaying(String title, long sinceMs) {}
@@ -0,0 +1,35 @@
+package com.avilixradiomod.audio;
+
+/**
+ * Quality/CPU presets of the client's output resampler ({@code client.audio.Resampler}): kernel
+ * taps per output sample and the number of precomputed filter phases (linearly interpolated
+ * between). Lives here rather than in the client package because the config names it.
+ *
+ * Per output frame the inner loop does {@code taps} coefficient interpolations and {@code 2 * taps}
+ * MACs (both channels), so the work grows linearly with the taps; {@code ResamplerBenchmark}
+ * measures the actual time per MP3 frame for each preset and rate pair.
+ */
+public enum ResamplerQuality {
+    /** 8 taps; audible roll-off near the top of the band. */
+    FAST(8, 64),
+    /** 16 taps. */
+    MEDIUM(16, 128),
+    /** 32 taps; flat to ~20 kHz at 48 kHz. */
+    HIGH(32, 256);
+
+    private final int taps;
+    private final int phases;
+
+    ResamplerQuality(int taps, int phases) {
+        this.taps = taps;
+        this.phases = phases;
+    }
+
+    public int taps() {
+        return taps;
+    }
+
+    public int phases() {
+        return phases;
+    }
+}
@@ -1,6 +1,7 @@
 package com.avilixradiomod.block;
 
 import com.avilixradiomod.blockentity.RadioBlockEntity;
+import com.avilixradiomod.server.data.ChannelTable;
 import com.avilixradiomod.server.data.RadioWorldState;
 import com.mojang.serialization.MapCodec;
 import net.minecraft.core.BlockPos;
@@ -199,6 +200,7 @@ public class RadioBlock extends BaseEntityBlock {
         if (!level.isClientSide && state.getBlock() != newState.getBlock()) {
             if (level instanceof net.minecraft.server.level.ServerLevel sl) {
                 RadioWorldState.get(sl).remove(pos);
+                ChannelTable.get(sl.getServer()).removeOwner(sl.dimension().location(), pos);
             }
         }
     }
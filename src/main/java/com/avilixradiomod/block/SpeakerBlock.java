@@ -24,7 +24,6 @@ import net.minecraft.world.level.block.entity.BlockEntityTicker;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
-import net.minecraft.world.level.block.state.properties.BooleanProperty;
 import net.minecraft.world.level.block.state.properties.DirectionProperty;
 import org.jetbrains.annotations.Nullable;
 
@@ -37,16 +36,13 @@ public class SpeakerBlock extends BaseEntityBlock {
     // ✅ направление
     public static final DirectionProperty FACING = HorizontalDirectionalBlock.FACING;
 
-    // ✅ играет/не играет (для выбора модели/анимации)
-    public static final BooleanProperty PLAYING = BooleanProperty.create("playing");
-
     public SpeakerBlock(Properties properties) {
         super(properties);
-        // ✅ обязательно задать значения ДЛЯ ВСЕХ свойств (FACING + PLAYING)
+        // "Playing" is not a block state: the client derives it from the synced block entity
+        // (see SpeakerRenderer), so starting a station never rewrites blocks or rebuilds chunks.
         this.registerDefaultState(
                 this.stateDefinition.any()
                         .setValue(FACING, Direction.NORTH)
-                        .setValue(PLAYING, false)
         );
     }
 
@@ -69,18 +65,17 @@ public class SpeakerBlock extends BaseEntityBlock {
     // ✅ добавляем свойства в blockstate (ОДИН раз!)
     @Override
     protected void createBlockStateDefinition(StateDefinition.Builder<Block, BlockState> builder) {
-        builder.add(FACING, PLAYING);
+        builder.add(FACING);
     }
 
     // ✅ поворот при установке
     @Override
     public BlockState getStateForPlacement(BlockPlaceContext ctx) {
         return this.defaultBlockState()
-                .setValue(FACING, ctx.getHorizontalDirection().getOpposite())
-                .setValue(PLAYING, false);
+                .setValue(FACING, ctx.getHorizontalDirection().getOpposite());
     }
 
-    // ✅ серверный тикер — обновляет PLAYING по радио
+    // ✅ серверный тикер — обновляет кэш состояния радио
     @Nullable
     @Override
     public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> type) {
@@ -134,7 +129,7 @@ public class SpeakerBlock extends BaseEntityBlock {
     public void animateTick(BlockState state, Level level, BlockPos pos, RandomSource random) {
         super.animateTick(state, level, pos, random);
 
-        if (!state.getValue(PLAYING)) {
+        if (!(level.getBlockEntity(pos) instanceof SpeakerBlockEntity speaker) || !speaker.isVisuallyPlaying()) {
             return;
         }
 
@@ -0,0 +1,38 @@
+package com.avilixradiomod.blockentity;
+
+import com.avilixradiomod.server.data.ChannelTable;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.IntFunction;
+
+/**
+ * Client-side lookups used by block entities, installed by {@code ClientInit}.
+ *
+ * Block entities are common code: referring to client classes directly would load them on a
+ * dedicated server. Until a lookup is installed it answers "not known yet".
+ */
+public final class ClientLookups {
+    private ClientLookups() {}
+
+    private static IntFunction<@Nullable String> urls = id -> null;
+    private static IntFunction<ChannelTable.Entry> channels = channel -> ChannelTable.Entry.SILENT;
+
+    /** {@code resolver} maps a URL id to its URL, or null while the URL is being fetched. */
+    public static void setUrlResolver(IntFunction<@Nullable String> resolver) {
+        urls = resolver;
+    }
+
+    /** {@code source} maps a channel to the client copy of its state. */
+    public static void setChannelSource(IntFunction<ChannelTable.Entry> source) {
+        channels = source;
+    }
+
+    @Nullable
+    static String url(int id) {
+        return urls.apply(id);
+    }
+
+    static ChannelTable.Entry channel(int channel) {
+        return channels.apply(channel);
+    }
+}
@@ -0,0 +1,76 @@
+package com.avilixradiomod.blockentity;
+
+import com.avilixradiomod.server.data.UrlTable;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A block entity URL that is saved and synced as an id into the world {@link UrlTable}.
+ *
+ * On the server the string is interned when the block entity is written (chunk save or update
+ * packet) and resolved from the table on first use after loading. On the client the id is looked up
+ * in the client URL table ({@link ClientLookups}); until the server answered, the URL reads as "" and
+ * {@link #isResolved} is false.
+ *
+ * Data written without a server level (e.g. item NBT on the client) keeps the plain string, and old
+ * NBT with a plain string is read as before and turned into an id on its next save.
+ */
+final class InternedUrl {
+
+    @Nullable
+    private String url = ""; // null = only the id is known yet
+    private int id = 0;
+
+    String get(@Nullable Level level) {
+        if (url == null) {
+            final String resolved = resolve(level, id);
+            if (resolved == null) return "";
+            url = resolved;
+        }
+        return url;
+    }
+
+    /** False while only the id is known and the URL could not be looked up yet. */
+    boolean isResolved(@Nullable Level level) {
+        get(level);
+        return url != null;
+    }
+
+    void set(String url) {
+        this.url = url == null ? "" : url;
+    }
+
+    /** Server: the table id {@link #save} writes for this URL (interned if it's new). */
+    int id(ServerLevel level) {
+        if (url != null) id = UrlTable.get(level.getServer()).intern(url);
+        return id;
+    }
+
+    void save(CompoundTag tag, String urlTag, String idTag, @Nullable Level level) {
+        if (level instanceof ServerLevel sl) {
+            tag.putInt(idTag, id(sl));
+        } else {
+            tag.putString(urlTag, get(level));
+        }
+    }
+
+    void load(CompoundTag tag, String urlTag, String idTag, @Nullable Level level) {
+        if (tag.contains(idTag)) {
+            id = tag.getInt(idTag);
+            url = id == 0 ? "" : null;
+            // Client: ask for the URL right away rather than on first use.
+            if (level != null && level.isClientSide) get(level);
+        } else {
+            set(tag.getString(urlTag));
+        }
+    }
+
+    @Nullable
+    private static String resolve(@Nullable Level level, int id) {
+        if (level == null) return null;
+        if (level.isClientSide) return ClientLookups.url(id);
+        return level.getServer() != null ? UrlTable.get(level.getServer()).resolve(id) : null;
+    }
+}
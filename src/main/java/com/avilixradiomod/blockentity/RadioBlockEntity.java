@@ -3,7 +3,11 @@ package com.avilixradiomod.blockentity;
 import com.avilixradiomod.menu.RadioMenu;
 import com.avilixradiomod.registry.ModBlockEntities;
 import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.server.data.ChannelTable;
 import com.avilixradiomod.server.data.RadioWorldState;
+import com.avilixradiomod.server.sync.AudibilityService;
+import com.avilixradiomod.server.sync.ChangeBuffer;
+import com.avilixradiomod.server.sync.UrlGrants;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
@@ -11,6 +15,7 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientGamePacketListener;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.MenuProvider;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -22,14 +27,29 @@ import org.jetbrains.annotations.Nullable;
 public class RadioBlockEntity extends BlockEntity implements MenuProvider {
 
     private static final String TAG_URL = "Url";
+    private static final String TAG_URL_ID = "UrlId";
     private static final String TAG_PLAYING = "Playing";
     private static final String TAG_VOLUME = "Volume";
     private static final String TAG_INIT = "Init";
+    private static final String TAG_EQ_LOW = "EqLow";
+    private static final String TAG_EQ_MID = "EqMid";
+    private static final String TAG_EQ_HIGH = "EqHigh";
+    private static final String TAG_CHANNEL = "Channel";
 
-    private String url = "";
+    /** EQ band range, dB. */
+    public static final int EQ_MIN_DB = -12;
+    public static final int EQ_MAX_DB = 12;
+
+    private final InternedUrl url = new InternedUrl();
     private boolean playing = false;
     private int volume = 100;
     private boolean init = false;
+    private int eqLow = 0;
+    private int eqMid = 0;
+    private int eqHigh = 0;
+    private int channel = 0; // frequency channel this radio publishes on, 0 = none
+    /** A player tuned, started or switched this radio since the last publish: take the channel over. */
+    private boolean claimChannel = false;
 
     public RadioBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntities.RADIO.get(), pos, state);
@@ -46,8 +66,8 @@ public class RadioBlockEntity extends BlockEntity implements MenuProvider {
                 if (defUrl == null) defUrl = "";
                 defUrl = defUrl.trim();
 
-                if (!defUrl.isEmpty() && isValidStreamUrl(defUrl) && (url == null || url.isBlank())) {
-                    url = defUrl;
+                if (!defUrl.isEmpty() && isValidStreamUrl(defUrl) && getUrl().isBlank()) {
+                    url.set(defUrl);
                 }
 
                 volume = Math.max(0, Math.min(100, ModConfigs.COMMON.defaultVolume.get()));
@@ -56,13 +76,33 @@ public class RadioBlockEntity extends BlockEntity implements MenuProvider {
                 setChanged();
             }
 
-            // Publish state to world SavedData so speakers can work even if this chunk unloads.
-            RadioWorldState.get((net.minecraft.server.level.ServerLevel) level).update(worldPosition, url, playing, volume);
+            publishState();
+            AudibilityService.track(this);
+            // Just placed: the block change broadcast carries the (default) URL id to nearby players.
+            UrlGrants.grantTracking(this);
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (level != null && !level.isClientSide) {
+            AudibilityService.untrack(this);
         }
     }
 
     public String getUrl() {
-        return url;
+        return url.get(level);
+    }
+
+    /** Server: the URL table id that chunk data and update packets carry for this radio (0 on the client). */
+    public int getUrlId() {
+        return level instanceof ServerLevel sl ? url.id(sl) : 0;
+    }
+
+    /** False on the client until the synced URL id has been looked up; {@link #getUrl()} is "" until then. */
+    public boolean isUrlResolved() {
+        return url.isResolved(level);
     }
 
     public boolean isPlaying() {
@@ -73,25 +113,99 @@ public class RadioBlockEntity extends BlockEntity implements MenuProvider {
         return volume;
     }
 
+    public int getEqLow() {
+        return eqLow;
+    }
+
+    public int getEqMid() {
+        return eqMid;
+    }
+
+    public int getEqHigh() {
+        return eqHigh;
+    }
+
+    public int getChannel() {
+        return channel;
+    }
+
+    /** Tunes the radio to a frequency channel (0 = none); speakers on the channel follow it. */
+    public void setChannel(int channel) {
+        if (channel != 0 && !ChannelTable.isValid(channel)) channel = 0;
+        if (channel == this.channel) return;
+
+        if (level != null && !level.isClientSide && this.channel != 0 && level.getServer() != null) {
+            ChannelTable.get(level.getServer()).unpublish(this.channel, level.dimension().location(), worldPosition);
+        }
+        this.channel = channel;
+        this.claimChannel = channel != 0;
+        setChanged();
+
+        if (level != null && !level.isClientSide) {
+            ChangeBuffer.queue(this);
+        }
+    }
+
+    /**
+     * Server: publishes the current state to the world SavedData (so speakers keep working when this
+     * chunk unloads) and to the channel table. Called on load and by {@link ChangeBuffer} at the end of
+     * a tick in which the settings changed.
+     */
+    public void publishState() {
+        if (!(level instanceof net.minecraft.server.level.ServerLevel sl)) return;
+        RadioWorldState.get(sl).update(worldPosition, getUrl(), playing, volume);
+        publishChannel();
+    }
+
+    private void publishChannel() {
+        if (channel == 0 || level == null || level.getServer() == null) return;
+        final ChannelTable table = ChannelTable.get(level.getServer());
+        if (claimChannel) {
+            // A refused claim (another radio is live on the channel) is not retried: only a new
+            // explicit retune may take the channel once it is free.
+            claimChannel = false;
+            table.claim(channel, level.dimension().location(), worldPosition, getUrl(), playing, volume);
+        } else {
+            table.refresh(channel, level.dimension().location(), worldPosition, getUrl(), playing, volume);
+        }
+    }
+
+    private void setEq(int low, int mid, int high) {
+        this.eqLow = clampEq(low);
+        this.eqMid = clampEq(mid);
+        this.eqHigh = clampEq(high);
+    }
+
+    private static int clampEq(int db) {
+        return Math.max(EQ_MIN_DB, Math.min(EQ_MAX_DB, db));
+    }
+
     /**
      * Client-only preview (GUI responsiveness)
      */
-    public void setClientSidePreview(String url, boolean playing, int volume) {
+    public void setClientSidePreview(@Nullable String url, boolean playing, int volume, int eqLow, int eqMid, int eqHigh) {
         if (this.level == null || !this.level.isClientSide) return;
 
-        if (url == null) url = "";
-        url = url.trim(); // ✅ УБИРАЕМ ПРОБЕЛЫ
-
-        this.url = url;
+        // null = keep the URL (the screen doesn't know it yet).
+        if (url != null) this.url.set(url.trim()); // ✅ УБИРАЕМ ПРОБЕЛЫ
         this.playing = playing;
         this.volume = Math.max(0, Math.min(100, volume));
+        setEq(eqLow, eqMid, eqHigh);
         this.setChanged();
     }
 
+    /** True if {@link #setSettings} with these values would leave the radio as it is. */
+    public boolean hasSettings(String url, boolean playing, int volume, int eqLow, int eqMid, int eqHigh) {
+        url = url == null ? "" : url.trim();
+        if (playing && !isValidStreamUrl(url)) playing = false;
+        return url.equals(getUrl()) && playing == this.playing && Math.max(0, Math.min(100, volume)) == this.volume
+                && clampEq(eqLow) == this.eqLow && clampEq(eqMid) == this.eqMid && clampEq(eqHigh) == this.eqHigh;
+    }
+
     /**
      * Server-authoritative settings
      */
-    public void setSettings(String url, boolean playing, int volume) {
+    public void setSettings(String url, boolean playing, int volume, int eqLow, int eqMid, int eqHigh) {
         if (url == null) url = "";
         url = url.trim();
 
@@ -99,18 +213,18 @@ public class RadioBlockEntity extends BlockEntity implements MenuProvider {
             playing = false; // ✅ сервер принудительно глушит
         }
 
-        this.url = url;
+        // Starting playback or switching station is a retune; volume/EQ alone are not.
+        if ((playing && !this.playing) || !url.equals(getUrl())) claimChannel = true;
+
+        this.url.set(url);
         this.playing = playing;
         this.volume = Math.max(0, Math.min(100, volume));
+        setEq(eqLow, eqMid, eqHigh);
 
         setChanged();
-        if (level != null) {
-            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), 3);
-
-            if (!level.isClientSide) {
-                RadioWorldState.get((net.minecraft.server.level.ServerLevel) level)
-                        .update(worldPosition, this.url, this.playing, this.volume);
-            }
+        if (level != null && !level.isClientSide) {
+            // Synced and published once at the end of the tick, however many packets arrive.
+            ChangeBuffer.queue(this);
         }
     }
 
@@ -130,19 +244,25 @@ public class RadioBlockEntity extends BlockEntity implements MenuProvider {
     @Override
     protected void saveAdditional(CompoundTag tag, HolderLookup.Provider registries) {
         super.saveAdditional(tag, registries);
-        tag.putString(TAG_URL, url);
+        url.save(tag, TAG_URL, TAG_URL_ID, level);
         tag.putBoolean(TAG_PLAYING, playing);
         tag.putInt(TAG_VOLUME, volume);
         tag.putBoolean(TAG_INIT, init);
+        tag.putInt(TAG_EQ_LOW, eqLow);
+        tag.putInt(TAG_EQ_MID, eqMid);
+        tag.putInt(TAG_EQ_HIGH, eqHigh);
+        tag.putInt(TAG_CHANNEL, channel);
     }
 
     @Override
     protected void loadAdditional(CompoundTag tag, HolderLookup.Provider registries) {
         super.loadAdditional(tag, registries);
-        url = tag.getString(TAG_URL);
+        url.load(tag, TAG_URL, TAG_URL_ID, level);
         playing = tag.getBoolean(TAG_PLAYING);
         volume = tag.contains(TAG_VOLUME) ? tag.getInt(TAG_VOLUME) : 100;
         init = tag.getBoolean(TAG_INIT);
+        setEq(tag.getInt(TAG_EQ_LOW), tag.getInt(TAG_EQ_MID), tag.getInt(TAG_EQ_HIGH));
+        channel = tag.getInt(TAG_CHANNEL);
     }
 
     @Override
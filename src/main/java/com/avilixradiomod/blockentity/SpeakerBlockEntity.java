@@ -1,16 +1,18 @@
 package com.avilixradiomod.blockentity;
 
-import com.avilixradiomod.block.SpeakerBlock;
 import com.avilixradiomod.registry.ModBlockEntities;
+import com.avilixradiomod.server.data.ChannelTable;
 import com.avilixradiomod.server.data.RadioWorldState;
+import com.avilixradiomod.server.sync.AudibilityService;
+import com.avilixradiomod.server.sync.ChangeBuffer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
@@ -23,9 +25,11 @@ public class SpeakerBlockEntity extends BlockEntity {
     private static final String TAG_Y = "Y";
     private static final String TAG_Z = "Z";
     private static final String TAG_DIM = "Dim";
+    private static final String TAG_CHANNEL = "Channel";
 
     // Cached radio state (so the speaker keeps working even if the radio chunk is unloaded)
     private static final String TAG_CACHED_URL = "CachedUrl";
+    private static final String TAG_CACHED_URL_ID = "CachedUrlId";
     private static final String TAG_CACHED_PLAYING = "CachedPlaying";
     private static final String TAG_CACHED_VOLUME = "CachedVolume";
 
@@ -33,9 +37,11 @@ public class SpeakerBlockEntity extends BlockEntity {
     private BlockPos radioPos;
     @Nullable
     private ResourceLocation radioDim;
+    /** Frequency channel this speaker follows instead of a linked radio; 0 = none. */
+    private int channel = 0;
 
     // Last known radio state (server-authoritative), synced to the client via BE update packet.
-    private String cachedUrl = "";
+    private final InternedUrl cachedUrl = new InternedUrl();
     private boolean cachedPlaying = false;
     private int cachedVolume = 100;
 
@@ -43,6 +49,22 @@ public class SpeakerBlockEntity extends BlockEntity {
         super(ModBlockEntities.SPEAKER.get(), pos, state);
     }
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level != null && !level.isClientSide) {
+            AudibilityService.track(this);
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        if (level != null && !level.isClientSide) {
+            AudibilityService.untrack(this);
+        }
+    }
+
     @Nullable
     public BlockPos getRadioPos() {
         return radioPos;
@@ -54,21 +76,41 @@ public class SpeakerBlockEntity extends BlockEntity {
     }
 
     public void setRadioLink(@Nullable BlockPos pos, @Nullable ResourceLocation dim) {
+        relink(pos, dim, 0);
+    }
+
+    public int getChannel() {
+        return channel;
+    }
+
+    /** Tunes the speaker to a frequency channel (drops any radio link). */
+    public void setChannel(int channel) {
+        relink(null, null, ChannelTable.isValid(channel) ? channel : 0);
+    }
+
+    private void relink(@Nullable BlockPos pos, @Nullable ResourceLocation dim, int channel) {
         this.radioPos = pos;
         this.radioDim = dim;
+        this.channel = channel;
 
         // Reset cached state when re-linking.
-        this.cachedUrl = "";
+        this.cachedUrl.set("");
         this.cachedPlaying = false;
         this.cachedVolume = 100;
         setChanged();
 
         if (level != null && !level.isClientSide) {
-            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), Block.UPDATE_ALL);
-            // ^ вместо 3, чтобы точно ушло клиенту
+            ChangeBuffer.queue(this);
         }
     }
 
+    /** State of the channel this speaker is tuned to, from the server table or the client copy. */
+    private ChannelTable.Entry channelEntry() {
+        if (level == null) return ChannelTable.Entry.SILENT;
+        if (level.isClientSide) return ClientLookups.channel(channel);
+        return level.getServer() != null ? ChannelTable.get(level.getServer()).get(channel) : ChannelTable.Entry.SILENT;
+    }
+
     // ------------------------------------------------------------------
     // NBT
     // ------------------------------------------------------------------
@@ -86,7 +128,8 @@ public class SpeakerBlockEntity extends BlockEntity {
             tag.put(TAG_LINKED, linked);
         }
 
-        tag.putString(TAG_CACHED_URL, cachedUrl == null ? "" : cachedUrl);
+        if (channel != 0) tag.putInt(TAG_CHANNEL, channel);
+        cachedUrl.save(tag, TAG_CACHED_URL, TAG_CACHED_URL_ID, level);
         tag.putBoolean(TAG_CACHED_PLAYING, cachedPlaying);
         tag.putInt(TAG_CACHED_VOLUME, cachedVolume);
     }
@@ -109,7 +152,8 @@ public class SpeakerBlockEntity extends BlockEntity {
             radioDim = null;
         }
 
-        cachedUrl = tag.getString(TAG_CACHED_URL);
+        channel = tag.getInt(TAG_CHANNEL);
+        cachedUrl.load(tag, TAG_CACHED_URL, TAG_CACHED_URL_ID, level);
         cachedPlaying = tag.getBoolean(TAG_CACHED_PLAYING);
         cachedVolume = tag.contains(TAG_CACHED_VOLUME) ? tag.getInt(TAG_CACHED_VOLUME) : 100;
     }
@@ -119,15 +163,20 @@ public class SpeakerBlockEntity extends BlockEntity {
     // ------------------------------------------------------------------
 
     public String getCachedUrl() {
-        return cachedUrl;
+        return channel != 0 ? channelEntry().url() : cachedUrl.get(level);
+    }
+
+    /** Server: the URL table id that chunk data and update packets carry for this speaker (0 on the client). */
+    public int getCachedUrlId() {
+        return level instanceof ServerLevel sl ? cachedUrl.id(sl) : 0;
     }
 
     public boolean isCachedPlaying() {
-        return cachedPlaying;
+        return channel != 0 ? channelEntry().playing() : cachedPlaying;
     }
 
     public int getCachedVolume() {
-        return cachedVolume;
+        return channel != 0 ? channelEntry().volume() : cachedVolume;
     }
 
     @Override
@@ -142,16 +191,21 @@ public class SpeakerBlockEntity extends BlockEntity {
     }
 
     // ------------------------------------------------------------------
-    // SERVER TICK — включает / выключает анимацию
+    // SERVER TICK — синхронизирует кэш состояния радио
     // ------------------------------------------------------------------
 
+    /**
+     * Keeps the cached radio state in step with the linked radio and syncs it to clients. The
+     * "playing" look (model overlay, particles) is derived from that state on the client, so this
+     * never rewrites the block state.
+     */
     public static void serverTick(Level level, BlockPos pos, BlockState state, SpeakerBlockEntity speaker) {
         if ((level.getGameTime() % 10L) != 0L) return; // раз в 10 тиков
 
-        boolean cachedChanged = false;
+        // Tuned to a channel: clients read the channel table, nothing to cache here.
+        if (speaker.channel != 0) return;
 
-        // Default: keep whatever we already know.
-        boolean shouldBePlaying = speaker.cachedPlaying && speaker.cachedUrl != null && !speaker.cachedUrl.isBlank();
+        boolean cachedChanged = false;
 
         if (speaker.radioPos != null
                 && speaker.radioDim != null
@@ -179,8 +233,8 @@ public class SpeakerBlockEntity extends BlockEntity {
                     boolean playing = radio.isPlaying() && !url.isBlank();
                     int vol = Math.max(0, Math.min(100, radio.getVolume()));
 
-                    if (!url.equals(speaker.cachedUrl)) {
-                        speaker.cachedUrl = url;
+                    if (!url.equals(speaker.getCachedUrl())) {
+                        speaker.cachedUrl.set(url);
                         cachedChanged = true;
                     }
                     if (speaker.cachedPlaying != playing) {
@@ -191,14 +245,11 @@ public class SpeakerBlockEntity extends BlockEntity {
                         speaker.cachedVolume = vol;
                         cachedChanged = true;
                     }
-
-                    shouldBePlaying = playing;
                 } else {
                     // Chunk is loaded but the radio is gone/replaced.
-                    if (!speaker.cachedUrl.isEmpty()) { speaker.cachedUrl = ""; cachedChanged = true; }
+                    if (!speaker.getCachedUrl().isEmpty()) { speaker.cachedUrl.set(""); cachedChanged = true; }
                     if (speaker.cachedPlaying) { speaker.cachedPlaying = false; cachedChanged = true; }
                     if (speaker.cachedVolume != 100) { speaker.cachedVolume = 100; cachedChanged = true; }
-                    shouldBePlaying = false;
                 }
             } else if (!level.isClientSide && level instanceof net.minecraft.server.level.ServerLevel sl) {
                 // Chunk is NOT loaded: use world SavedData published by the radio itself.
@@ -208,34 +259,27 @@ public class SpeakerBlockEntity extends BlockEntity {
                     boolean playing = e.playing() && !url.isBlank();
                     int vol = Math.max(0, Math.min(100, e.volume()));
 
-                    if (!url.equals(speaker.cachedUrl)) { speaker.cachedUrl = url; cachedChanged = true; }
+                    if (!url.equals(speaker.getCachedUrl())) { speaker.cachedUrl.set(url); cachedChanged = true; }
                     if (speaker.cachedPlaying != playing) { speaker.cachedPlaying = playing; cachedChanged = true; }
                     if (speaker.cachedVolume != vol) { speaker.cachedVolume = vol; cachedChanged = true; }
 
-                    shouldBePlaying = playing;
                 }
             }
         } else {
             // Not linked / different dimension.
-            if (!speaker.cachedUrl.isEmpty()) { speaker.cachedUrl = ""; cachedChanged = true; }
+            if (!speaker.getCachedUrl().isEmpty()) { speaker.cachedUrl.set(""); cachedChanged = true; }
             if (speaker.cachedPlaying) { speaker.cachedPlaying = false; cachedChanged = true; }
             if (speaker.cachedVolume != 100) { speaker.cachedVolume = 100; cachedChanged = true; }
-            shouldBePlaying = false;
         }
 
-        boolean isPlaying = state.getValue(SpeakerBlock.PLAYING);
-
         if (cachedChanged) {
             speaker.setChanged();
-            level.sendBlockUpdated(speaker.worldPosition, state, state, Block.UPDATE_ALL);
+            ChangeBuffer.queue(speaker);
         }
+    }
 
-        if (isPlaying != shouldBePlaying) {
-            level.setBlock(
-                    pos,
-                    state.setValue(SpeakerBlock.PLAYING, shouldBePlaying),
-                    3
-            );
-        }
+    /** Client: whether to show the speaker as playing. */
+    public boolean isVisuallyPlaying() {
+        return isCachedPlaying() && !getCachedUrl().isBlank();
     }
 }
@@ -0,0 +1,28 @@
+package com.avilixradiomod.client;
+
+import com.avilixradiomod.server.data.ChannelTable;
+
+import java.util.Arrays;
+
+/**
+ * Client copy of the server's frequency channel table, kept up to date by
+ * {@link com.avilixradiomod.network.ChannelStatePayload}. Main thread only.
+ */
+public final class ClientChannels {
+    private ClientChannels() {}
+
+    private static final ChannelTable.Entry[] ENTRIES = new ChannelTable.Entry[ChannelTable.MAX_CHANNEL + 1];
+
+    public static ChannelTable.Entry get(int channel) {
+        final ChannelTable.Entry e = ChannelTable.isValid(channel) ? ENTRIES[channel] : null;
+        return e != null ? e : ChannelTable.Entry.SILENT;
+    }
+
+    public static void apply(int channel, String url, boolean playing, int volume) {
+        if (ChannelTable.isValid(channel)) ENTRIES[channel] = new ChannelTable.Entry(url, playing, volume);
+    }
+
+    public static void reset() {
+        Arrays.fill(ENTRIES, null);
+    }
+}
@@ -1,11 +1,20 @@
 package com.avilixradiomod.client;
 
+import com.avilixradiomod.blockentity.ClientLookups;
+import com.avilixradiomod.client.audio.AudibleEmitters;
 import com.avilixradiomod.client.audio.RadioAudioController;
+import com.avilixradiomod.client.audio.RelayClient;
 import com.avilixradiomod.client.ModSoundOptionsHook;
+import com.avilixradiomod.client.render.SpeakerRenderer;
 import com.avilixradiomod.client.screen.RadioScreen;
+import com.avilixradiomod.registry.ModBlockEntities;
 import com.avilixradiomod.registry.ModMenus;
 import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
 import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.client.event.CustomizeGuiOverlayEvent;
+import net.neoforged.neoforge.client.event.EntityRenderersEvent;
+import net.neoforged.neoforge.client.event.ModelEvent;
 import net.neoforged.neoforge.client.event.RegisterMenuScreensEvent;
 import net.neoforged.neoforge.common.NeoForge;
 
@@ -16,11 +25,19 @@ public final class ClientInit {
         // Ensure client config values edited via in-game slider are loaded from disk.
         ClientConfigPersistence.loadGlobalVolumeIntoConfig();
 
+        // Block entities are common code and reach the client URL/channel tables through these hooks.
+        ClientLookups.setUrlResolver(ClientUrlTable::resolve);
+        ClientLookups.setChannelSource(ClientChannels::get);
+
         // ✅ Это модовый bus — тут ок
         modBus.addListener(ClientInit::registerScreens);
+        modBus.addListener(ClientInit::registerRenderers);
+        modBus.addListener(ClientInit::registerModels);
 
         // ✅ А это game bus — тик только тут
         NeoForge.EVENT_BUS.addListener(ClientInit::onClientTick);
+        NeoForge.EVENT_BUS.addListener(ClientInit::onLoggingOut);
+        NeoForge.EVENT_BUS.addListener(ClientInit::onDebugText);
 
         // ✅ Добавляем ползунок громкости мода прямо в меню звука Minecraft
         NeoForge.EVENT_BUS.addListener(ModSoundOptionsHook::onScreenInit);
@@ -31,7 +48,29 @@ public final class ClientInit {
         event.register(ModMenus.RADIO_MENU.get(), RadioScreen::new);
     }
 
+    private static void registerRenderers(EntityRenderersEvent.RegisterRenderers event) {
+        event.registerBlockEntityRenderer(ModBlockEntities.SPEAKER.get(), SpeakerRenderer::new);
+    }
+
+    /** The "on" speaker model is no longer referenced by a blockstate, so load it explicitly. */
+    private static void registerModels(ModelEvent.RegisterAdditional event) {
+        event.register(SpeakerRenderer.ON_MODEL);
+    }
+
     private static void onClientTick(ClientTickEvent.Post event) {
         RadioAudioController.clientTick();
+        ClientUrlTable.flush();
+    }
+
+    /** Only fired while the F3 screen is open. */
+    private static void onDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+        RadioAudioController.addDebugLines(event.getLeft());
+    }
+
+    private static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        RelayClient.reset();
+        AudibleEmitters.reset();
+        ClientUrlTable.reset();
+        ClientChannels.reset();
     }
 }
@@ -0,0 +1,57 @@
+package com.avilixradiomod.client;
+
+import com.avilixradiomod.network.ModPayloads;
+import com.avilixradiomod.network.UrlLookupPayload;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Client copy of the server's URL table. Block entities only carry URL ids; unknown ids are
+ * collected and asked for in batches once per tick, and resolve on a later call. Main thread only.
+ */
+public final class ClientUrlTable {
+    private ClientUrlTable() {}
+
+    private static final Int2ObjectOpenHashMap<String> KNOWN = new Int2ObjectOpenHashMap<>();
+    /** Ids asked for (or queued) and not answered yet. */
+    private static final IntOpenHashSet REQUESTED = new IntOpenHashSet();
+    private static final IntArrayList QUEUE = new IntArrayList();
+
+    /** URL for this id, or null while it's being fetched. */
+    @Nullable
+    public static String resolve(int id) {
+        if (id == 0) return "";
+        final String url = KNOWN.get(id);
+        if (url == null && REQUESTED.add(id)) QUEUE.add(id);
+        return url;
+    }
+
+    public static void apply(int[] ids, String[] urls) {
+        for (int i = 0; i < ids.length; i++) {
+            KNOWN.put(ids[i], urls[i] == null ? "" : urls[i]);
+            REQUESTED.remove(ids[i]);
+        }
+    }
+
+    /** Sends the ids queued this tick. */
+    public static void flush() {
+        if (QUEUE.isEmpty()) return;
+        final int[] ids = QUEUE.toIntArray();
+        QUEUE.clear();
+        for (int from = 0; from < ids.length; from += UrlLookupPayload.MAX_IDS) {
+            final int to = Math.min(ids.length, from + UrlLookupPayload.MAX_IDS);
+            ModPayloads.sendToServer(new UrlLookupPayload(Arrays.copyOfRange(ids, from, to)));
+        }
+    }
+
+    /** Disconnect: ids are per world. */
+    public static void reset() {
+        KNOWN.clear();
+        REQUESTED.clear();
+        QUEUE.clear();
+    }
+}
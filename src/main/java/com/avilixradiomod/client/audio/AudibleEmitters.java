@@ -0,0 +1,49 @@
+package com.avilixradiomod.client.audio;
+
+import com.avilixradiomod.network.AudibleEmittersPayload;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Client copy of the emitter set the server says we can hear (interest-managed sync).
+ * While it is active for the current level, {@link RadioAudioController} uses it instead of
+ * scanning loaded chunks. Client thread only.
+ */
+public final class AudibleEmitters {
+    private AudibleEmitters() {}
+
+    private static final Long2ObjectOpenHashMap<AudibleEmittersPayload.Emitter> EMITTERS = new Long2ObjectOpenHashMap<>();
+
+    /** Level the current snapshot belongs to (null = server doesn't send one). */
+    private static @Nullable Level level;
+
+    public static void apply(AudibleEmittersPayload payload) {
+        if (payload.reset()) {
+            EMITTERS.clear();
+            level = Minecraft.getInstance().level;
+        }
+        for (long pos : payload.removed()) {
+            EMITTERS.remove(pos);
+        }
+        for (AudibleEmittersPayload.Emitter e : payload.upserts()) {
+            EMITTERS.put(e.pos(), e);
+        }
+    }
+
+    static boolean isActiveFor(@Nullable Level current) {
+        return current != null && current == level;
+    }
+
+    static Collection<AudibleEmittersPayload.Emitter> all() {
+        return EMITTERS.values();
+    }
+
+    public static void reset() {
+        EMITTERS.clear();
+        level = null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.avilixradiomod.client.audio;
+
+/**
+ * Stereo biquad filter (RBJ audio EQ cookbook), transposed direct form II.
+ *
+ * Coefficients and both channels' state live in plain fields, so setting up and running the filter
+ * never allocates. Runs on the audio thread only.
+ */
+final class Biquad {
+
+    private float b0 = 1f, b1 = 0f, b2 = 0f, a1 = 0f, a2 = 0f;
+    private float z1L, z2L, z1R, z2R;
+    private boolean bypass = true;
+
+    boolean isBypass() {
+        return bypass;
+    }
+
+    void setBypass() {
+        bypass = true;
+        reset();
+    }
+
+    void reset() {
+        z1L = z2L = z1R = z2R = 0f;
+    }
+
+    void setLowPass(double sampleRate, double cutoff, double q) {
+        final double w0 = 2.0 * Math.PI * Math.min(cutoff, sampleRate * 0.45) / sampleRate;
+        final double cos = Math.cos(w0);
+        final double alpha = Math.sin(w0) / (2.0 * q);
+        set((1 - cos) / 2, 1 - cos, (1 - cos) / 2, 1 + alpha, -2 * cos, 1 - alpha);
+    }
+
+    void setPeaking(double sampleRate, double freq, double q, double gainDb) {
+        if (gainDb == 0.0) {
+            setBypass();
+            return;
+        }
+        final double a = Math.pow(10.0, gainDb / 40.0);
+        final double w0 = 2.0 * Math.PI * freq / sampleRate;
+        final double cos = Math.cos(w0);
+        final double alpha = Math.sin(w0) / (2.0 * q);
+        set(1 + alpha * a, -2 * cos, 1 - alpha * a, 1 + alpha / a, -2 * cos, 1 - alpha / a);
+    }
+
+    void setLowShelf(double sampleRate, double freq, double gainDb) {
+        if (gainDb == 0.0) {
+            setBypass();
+            return;
+        }
+        final double a = Math.pow(10.0, gainDb / 40.0);
+        final double w0 = 2.0 * Math.PI * freq / sampleRate;
+        final double cos = Math.cos(w0);
+        final double alpha = Math.sin(w0) / 2.0 * Math.sqrt(2.0); // shelf slope S = 1
+        final double sq = 2.0 * Math.sqrt(a) * alpha;
+        set(a * ((a + 1) - (a - 1) * cos + sq),
+                2 * a * ((a - 1) - (a + 1) * cos),
+                a * ((a + 1) - (a - 1) * cos - sq),
+                (a + 1) + (a - 1) * cos + sq,
+                -2 * ((a - 1) + (a + 1) * cos),
+                (a + 1) + (a - 1) * cos - sq);
+    }
+
+    void setHighShelf(double sampleRate, double freq, double gainDb) {
+        if (gainDb == 0.0) {
+            setBypass();
+            return;
+        }
+        final double a = Math.pow(10.0, gainDb / 40.0);
+        final double w0 = 2.0 * Math.PI * freq / sampleRate;
+        final double cos = Math.cos(w0);
+        final double alpha = Math.sin(w0) / 2.0 * Math.sqrt(2.0);
+        final double sq = 2.0 * Math.sqrt(a) * alpha;
+        set(a * ((a + 1) + (a - 1) * cos + sq),
+                -2 * a * ((a - 1) + (a + 1) * cos),
+                a * ((a + 1) + (a - 1) * cos - sq),
+                (a + 1) - (a - 1) * cos + sq,
+                2 * ((a - 1) - (a + 1) * cos),
+                (a + 1) - (a - 1) * cos - sq);
+    }
+
+    /** Filters interleaved stereo float samples in place. State carries over between calls. */
+    void process(float[] pcm, int n) {
+        if (bypass) return;
+        float l1 = z1L, l2 = z2L, r1 = z1R, r2 = z2R;
+        for (int i = 0; i + 1 < n; i += 2) {
+            final float xl = pcm[i];
+            final float yl = b0 * xl + l1;
+            l1 = b1 * xl - a1 * yl + l2;
+            l2 = b2 * xl - a2 * yl;
+            pcm[i] = yl;
+
+            final float xr = pcm[i + 1];
+            final float yr = b0 * xr + r1;
+            r1 = b1 * xr - a1 * yr + r2;
+            r2 = b2 * xr - a2 * yr;
+            pcm[i + 1] = yr;
+        }
+        z1L = l1; z2L = l2; z1R = r1; z2R = r2;
+    }
+
+    private void set(double nb0, double nb1, double nb2, double na0, double na1, double na2) {
+        // Keep the state when only the coefficients move (cutoff sweeps), so there is no click.
+        if (bypass) reset();
+        b0 = (float) (nb0 / na0);
+        b1 = (float) (nb1 / na0);
+        b2 = (float) (nb2 / na0);
+        a1 = (float) (na1 / na0);
+        a2 = (float) (na2 / na0);
+        bypass = false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.avilixradiomod.client.audio;
+
+/**
+ * Decode quality tiers, picked by the controller from how loud a stream currently is.
+ *
+ * Mono tiers downmix inside JLayer's layer III decoder, so the reorder/antialias/hybrid stages
+ * and the synthesis filter run for one channel only ({@link Layer3Channels}). The half-rate tier
+ * also halves the rate going into the effects chain and the resampler. The output line always
+ * stays stereo at the configured rate, so switching tiers never reopens the line.
+ */
+public enum DecodeQuality {
+    /** Full stereo decode (near). */
+    FULL(false, false),
+    /** Stereo downmixed to mono before synthesis (far). */
+    MONO(true, false),
+    /** Mono at half the sample rate (very far / barely audible). */
+    HALF_RATE(true, true);
+
+    final boolean mono;
+    final boolean halfRate;
+
+    DecodeQuality(boolean mono, boolean halfRate) {
+        this.mono = mono;
+        this.halfRate = halfRate;
+    }
+}
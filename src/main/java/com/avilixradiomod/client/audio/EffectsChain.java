@@ -0,0 +1,68 @@
+package com.avilixradiomod.client.audio;
+
+/**
+ * PCM effects after the gain stage: 3-band EQ (low shelf, mid peak, high shelf) and a muffling
+ * low-pass, on the float buffer of the output device. All state is preallocated; coefficients are
+ * only recomputed when a parameter changes, and bypassed stages cost nothing. Audio thread only.
+ */
+final class EffectsChain {
+
+    /** Low-pass cutoff range for the muffle amount: clear .. fully muffled (Hz). */
+    private static final double CUTOFF_OPEN_HZ = 16_000.0;
+    private static final double CUTOFF_MUFFLED_HZ = 500.0;
+    private static final double LOWPASS_Q = 0.707;
+
+    private static final double EQ_LOW_HZ = 200.0;
+    private static final double EQ_MID_HZ = 1_000.0;
+    private static final double EQ_MID_Q = 0.8;
+    private static final double EQ_HIGH_HZ = 4_000.0;
+
+    /** Muffle changes smaller than this don't recompute the low-pass. */
+    private static final float MUFFLE_STEP = 0.01f;
+
+    private final Biquad eqLow = new Biquad();
+    private final Biquad eqMid = new Biquad();
+    private final Biquad eqHigh = new Biquad();
+    private final Biquad lowPass = new Biquad();
+
+    private int sampleRate = 0;
+    private float muffle = 0f;
+    private int eq = 0; // EQ gains packed as three bytes, only for change detection
+
+    /** Updates coefficients for this frame's parameters (cheap when nothing changed). */
+    void configure(int sampleRate, float muffle, int eqLowDb, int eqMidDb, int eqHighDb) {
+        final int packed = (eqLowDb & 0xFF) | (eqMidDb & 0xFF) << 8 | (eqHighDb & 0xFF) << 16;
+        final boolean rateChanged = sampleRate != this.sampleRate;
+
+        if (rateChanged || packed != eq) {
+            eqLow.setLowShelf(sampleRate, EQ_LOW_HZ, eqLowDb);
+            eqMid.setPeaking(sampleRate, EQ_MID_HZ, EQ_MID_Q, eqMidDb);
+            eqHigh.setHighShelf(sampleRate, EQ_HIGH_HZ, eqHighDb);
+            eq = packed;
+        }
+
+        if (rateChanged || Math.abs(muffle - this.muffle) >= MUFFLE_STEP || (muffle <= 0.001f) != lowPass.isBypass()) {
+            if (muffle <= 0.001f) {
+                lowPass.setBypass();
+            } else {
+                final double cutoff = CUTOFF_OPEN_HZ * Math.pow(CUTOFF_MUFFLED_HZ / CUTOFF_OPEN_HZ, muffle);
+                lowPass.setLowPass(sampleRate, cutoff, LOWPASS_Q);
+            }
+            this.muffle = muffle;
+        }
+
+        this.sampleRate = sampleRate;
+    }
+
+    boolean isBypass() {
+        return eqLow.isBypass() && eqMid.isBypass() && eqHigh.isBypass() && lowPass.isBypass();
+    }
+
+    /** Runs the chain over interleaved stereo samples in place. */
+    void process(float[] pcm, int n) {
+        eqLow.process(pcm, n);
+        eqMid.process(pcm, n);
+        eqHigh.process(pcm, n);
+        lowPass.process(pcm, n);
+    }
+}
@@ -0,0 +1,111 @@
+package com.avilixradiomod.client.audio;
+
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.OutputChannels;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Switches the layer III decoder inside a JLayer {@link Decoder} between stereo and downmixed
+ * mono output, between frames.
+ *
+ * JLayer 1.0.1 ignores {@code Decoder.Params.setOutputChannels}, but its {@code LayerIIIDecoder}
+ * does support a single output channel: with {@code which_channels = DOWNMIX} and
+ * {@code first_channel = last_channel = 0} it averages both channels after the stereo stage and
+ * runs reorder/antialias/hybrid and the synthesis filter once. The output still is a 2-channel
+ * {@link javazoom.jl.decoder.SampleBuffer}, with the samples in the even (left) slots only.
+ *
+ * JLayer's downmix only averages the lower 18 of the 32 subbands (up to ~12 kHz at 44.1 kHz);
+ * above that the mono output carries the left channel. Mono is only used for quiet streams, which
+ * are usually muffled far below that anyway.
+ *
+ * The fields are private; JLayer is an automatic module (all packages open), so they are reached
+ * by reflection. If that fails (a different JLayer build) {@link #setMono} returns false and the
+ * stream just keeps decoding in stereo.
+ */
+final class Layer3Channels {
+
+    private static final Field L3_DECODER;
+    private static final Field WHICH_CHANNELS;
+    private static final Field FIRST_CHANNEL;
+    private static final Field LAST_CHANNEL;
+    private static final Field CHANNELS;
+    private static final Field PREVBLCK;
+    private static final Field FILTER2;
+    private static final Method FILTER_RESET;
+    private static final boolean AVAILABLE;
+
+    static {
+        Field l3 = null, which = null, first = null, last = null, channels = null, prevblck = null, filter2 = null;
+        Method reset = null;
+        boolean ok;
+        try {
+            l3 = field(Decoder.class, "l3decoder");
+            final Class<?> layer3 = l3.getType();
+            which = field(layer3, "which_channels");
+            first = field(layer3, "first_channel");
+            last = field(layer3, "last_channel");
+            channels = field(layer3, "channels");
+            prevblck = field(layer3, "prevblck");
+            filter2 = field(layer3, "filter2");
+            reset = filter2.getType().getDeclaredMethod("reset");
+            reset.setAccessible(true);
+            ok = true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ok = false;
+        }
+        L3_DECODER = l3;
+        WHICH_CHANNELS = which;
+        FIRST_CHANNEL = first;
+        LAST_CHANNEL = last;
+        CHANNELS = channels;
+        PREVBLCK = prevblck;
+        FILTER2 = filter2;
+        FILTER_RESET = reset;
+        AVAILABLE = ok;
+    }
+
+    private Layer3Channels() {
+    }
+
+    private static Field field(Class<?> owner, String name) throws NoSuchFieldException {
+        final Field f = owner.getDeclaredField(name);
+        f.setAccessible(true);
+        return f;
+    }
+
+    /**
+     * Makes the next frames decode as downmixed mono ({@code true}) or stereo. Returns false if
+     * nothing was changed: reflection isn't available, or the decoder hasn't decoded a layer III
+     * frame yet (JLayer creates the layer decoder lazily on the first frame).
+     */
+    static boolean setMono(Decoder decoder, boolean mono) {
+        if (!AVAILABLE) return false;
+        try {
+            final Object l3 = L3_DECODER.get(decoder);
+            if (l3 == null) return false;
+
+            final int channels = CHANNELS.getInt(l3);
+            if (mono) {
+                WHICH_CHANNELS.setInt(l3, OutputChannels.DOWNMIX_CHANNELS);
+                FIRST_CHANNEL.setInt(l3, 0);
+                LAST_CHANNEL.setInt(l3, 0);
+            } else {
+                WHICH_CHANNELS.setInt(l3, OutputChannels.BOTH_CHANNELS);
+                FIRST_CHANNEL.setInt(l3, 0);
+                LAST_CHANNEL.setInt(l3, channels - 1);
+                if (channels > 1) {
+                    // The right channel's overlap and synthesis state went stale while it was skipped:
+                    // start it from silence instead of replaying old samples.
+                    Arrays.fill(((float[][]) PREVBLCK.get(l3))[1], 0f);
+                    FILTER_RESET.invoke(FILTER2.get(l3));
+                }
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
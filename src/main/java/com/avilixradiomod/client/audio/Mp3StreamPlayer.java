@@ -1,26 +1,76 @@
 package com.avilixradiomod.client.audio;
 
+import com.avilixradiomod.audio.IcyMetadataInputStream;
+import com.avilixradiomod.audio.NowPlaying;
+import com.avilixradiomod.audio.ResamplerQuality;
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamErrors;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+import javazoom.jl.player.AudioDevice;
 import javazoom.jl.player.JavaSoundAudioDevice;
-import javazoom.jl.player.advanced.AdvancedPlayer;
+import org.jetbrains.annotations.Nullable;
 
+import javax.sound.sampled.AudioFormat;
 import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Very small MP3 streaming helper based on JLayer.
  * Runs decoding on a dedicated thread; {@link #stop()} interrupts playback.
  *
- * Volume is applied in software (PCM scaling) so it works on any audio device.
+ * Decoding is our own frame loop over JLayer's {@link Bitstream}/{@link Decoder} (instead of
+ * AdvancedPlayer.play()), so a corrupt frame is skipped and the bitstream resyncs to the next
+ * sync word instead of failing the whole connection.
+ *
+ * If the server runs the stream relay, bytes come from {@link RelayClient} instead of a direct
+ * HTTP connection to the station, and the title comes from the relay as well.
+ *
+ * "Warm hold" ({@link #setPaused(boolean)}): the HTTP connection stays open, frames are only
+ * framed by their headers and dropped, and the output line is released. Resuming opens a new
+ * line and a fresh decoder on the next frame, so there is no reconnect.
+ *
+ * The output line is always opened as 16-bit stereo; single-channel streams are duplicated to both
+ * channels.
+ *
+ * Quiet streams decode cheaper ({@link #setQuality(DecodeQuality)}): the mono tiers downmix inside
+ * the layer III decoder so only one channel goes through the hybrid and synthesis filters, and the
+ * half-rate tier runs the effects chain and the resampler at half the station's rate. Tiers switch
+ * between frames without a new decoder or line.
+ *
+ * Volume and stereo pan are applied in software (PCM scaling) so they work on any audio device.
+ * One decode therefore serves every emitter of a URL; the controller just passes the combined
+ * volume and pan. The controller only sets targets (once per tick), each stamped with the time it
+ * was set; the audio thread places an exponential ramp ({@link #setRampMillis(int)}) on that clock
+ * and glides the channel gains along it per sample, so there is no 20 Hz stair-stepping and client
+ * lag doesn't make fades jerky.
+ *
+ * The PCM path works on floats; its inner loops are {@link PcmKernels} (SIMD when the JVM has the
+ * Vector API). After the gain stage an {@link EffectsChain} applies the radio's 3-band EQ
+ * ({@link #setEq}) and a muffling low-pass ({@link #setMuffle(float)}, distance + occlusion).
+ * Finally a {@link Resampler} converts to the configured output rate ({@link #setOutput}), so every
+ * line has the same format whatever rate the station broadcasts at. Its cost is tracked next to
+ * the decode time ({@link #getAvgDspNanos()}), so it can be compared per stream at runtime.
  */
 public final class Mp3StreamPlayer {
 
+    /** After this many bad frames in a row the stream is considered broken (reconnect). */
+    private static final int MAX_CONSECUTIVE_BAD_FRAMES = 64;
+
+    /** How much a fully panned source is attenuated on the far channel (never fully mutes it). */
+    private static final float PAN_DEPTH = 0.7f;
+
     private Thread thread;
-    private volatile AdvancedPlayer player;
+    private volatile @Nullable AudioDevice device;
+    private volatile @Nullable Bitstream bitstream;
     private volatile InputStream stream;
 
     private final AtomicBoolean stopping = new AtomicBoolean(false);
@@ -28,10 +78,50 @@ public final class Mp3StreamPlayer {
     /** True if the last start/play attempt failed (connection/decoder/etc). */
     private volatile boolean failed = false;
 
-    /** Volume is read by the audio thread. */
-    private final AtomicInteger volumePercent = new AtomicInteger(100);
+    /** While paused the connection stays open and frames are read and dropped (no decode, no output line). */
+    private volatile boolean paused = false;
+
+    /** Target volume (0..100) and stereo pan (-1 = left .. 1 = right). Controller thread only. */
+    private float volumePercent = 100f;
+    private float pan = 0f;
+
+    /**
+     * Channel gain targets and when they were set ({@link System#nanoTime()}), published together
+     * so the audio thread always sees a matching pair and can place the ramp on the same clock.
+     */
+    private record GainTarget(float left, float right, long startNanos) {}
+
+    private volatile GainTarget gainTarget = new GainTarget(1f, 1f, System.nanoTime());
+
+    /** Time constant of the gain ramp, in ms (0 = jump straight to the target). */
+    private volatile int rampMillis = 0;
 
-    public synchronized void play(final String url, final int initialVolumePercent) {
+    /** Low-pass amount, 0 = off .. 1 = fully muffled. Read by the audio thread. */
+    private volatile float muffle = 0f;
+
+    /** EQ gains in dB (low, mid, high), packed as three signed bytes. Read by the audio thread. */
+    private volatile int eqPacked = 0;
+
+    /** Decode tier, set by the controller; the audio thread applies it before the next frame. */
+    private volatile DecodeQuality quality = DecodeQuality.FULL;
+
+    /** Output line rate (0 = the stream's own rate) and resampler preset. */
+    private volatile int outputRate = 0;
+    private volatile ResamplerQuality resamplerQuality = ResamplerQuality.MEDIUM;
+
+    /** ICY demuxer of the current connection (null if the server sends no metadata). */
+    private volatile @Nullable IcyMetadataInputStream icy;
+
+    /** Relayed connection (null for a direct one); the server forwards the station's title to it. */
+    private volatile @Nullable RelayInputStream relay;
+
+    // Decode stats (written by the audio thread only).
+    private volatile long lastDecodeNanos = 0L;
+    private volatile long avgDecodeNanos = 0L;
+    private volatile long skippedFrames = 0L;
+    private volatile long avgDspNanos = 0L;
+
+    public synchronized void play(final String url, final float initialVolumePercent) {
         stop();
 
         if (url == null) return;
@@ -55,14 +145,107 @@ public final class Mp3StreamPlayer {
         return true;
     }
 
-    public void setVolume(int volume) {
-        volumePercent.set(Math.max(0, Math.min(100, volume)));
+    /** Current stream title from ICY metadata, or null if unknown. Safe to call from any thread. */
+    @Nullable
+    public NowPlaying getNowPlaying() {
+        final IcyMetadataInputStream i = icy;
+        if (i != null) return i.nowPlaying();
+        final RelayInputStream r = relay;
+        return r == null ? null : r.nowPlaying();
+    }
+
+    public void setVolume(float volume) {
+        setGain(volume, pan);
+    }
+
+    public void setPan(float pan) {
+        setGain(volumePercent, pan);
+    }
+
+    /** Volume (0..100) and pan (-1..1) in one step: a new ramp towards them starts now. */
+    public void setGain(float volume, float pan) {
+        final float v = Math.max(0f, Math.min(100f, volume));
+        final float p = Math.max(-1f, Math.min(1f, pan));
+        if (v == volumePercent && p == this.pan) return;
+        volumePercent = v;
+        this.pan = p;
+
+        // 0..100 -> 0..1, square curve (nicer at low volumes)
+        final float t = v / 100.0f;
+        final float gain = t * t;
+        // Balance-style pan: only the far channel is turned down.
+        gainTarget = new GainTarget(
+                gain * (p > 0f ? 1f - p * PAN_DEPTH : 1f),
+                gain * (p < 0f ? 1f + p * PAN_DEPTH : 1f),
+                System.nanoTime());
+    }
+
+    public void setRampMillis(int millis) {
+        rampMillis = Math.max(0, millis);
+    }
+
+    public void setMuffle(float muffle) {
+        this.muffle = Math.max(0f, Math.min(1f, muffle));
+    }
+
+    /** Output rate (0 = native) and resampler preset; a new rate applies when the line is next opened. */
+    public void setOutput(int sampleRate, ResamplerQuality quality) {
+        this.outputRate = Math.max(0, sampleRate);
+        this.resamplerQuality = quality;
+    }
+
+    public void setQuality(DecodeQuality quality) {
+        this.quality = quality;
+    }
+
+    public DecodeQuality getQuality() {
+        return quality;
+    }
+
+    /** Per-radio EQ, each band -12..12 dB. */
+    public void setEq(int lowDb, int midDb, int highDb) {
+        eqPacked = (clampDb(lowDb) & 0xFF) | (clampDb(midDb) & 0xFF) << 8 | (clampDb(highDb) & 0xFF) << 16;
+    }
+
+    private static int clampDb(int db) {
+        return Math.max(-12, Math.min(12, db));
+    }
+
+    /** Pauses/resumes output without closing the connection. */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /** Decode time of the last frame, in nanoseconds. */
+    public long getLastDecodeNanos() {
+        return lastDecodeNanos;
+    }
+
+    /** Smoothed (EWMA) decode time per frame, in nanoseconds. */
+    public long getAvgDecodeNanos() {
+        return avgDecodeNanos;
+    }
+
+    /** Smoothed (EWMA) time of the effects chain per frame, in nanoseconds. */
+    public long getAvgDspNanos() {
+        return avgDspNanos;
+    }
+
+    /** Frames dropped because they could not be parsed or decoded. */
+    public long getSkippedFrames() {
+        return skippedFrames;
     }
 
     public synchronized void stop() {
         stopping.set(true);
-        closeQuietly(player);
-        player = null;
+        closeQuietly(device);
+        device = null;
+        closeQuietly(bitstream);
+        bitstream = null;
         closeQuietly(stream);
         stream = null;
 
@@ -74,39 +257,145 @@ public final class Mp3StreamPlayer {
 
     private void run(final String url) {
         try {
-            final HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-            conn.setInstanceFollowRedirects(true);
-            conn.setConnectTimeout(8_000);
-            conn.setReadTimeout(15_000);
-            conn.setRequestProperty("User-Agent", "AvilixRadioMod");
-            conn.connect();
+            // Prefer the server relay (one upstream connection per server); fall back to direct HTTP.
+            InputStream in = RelayClient.open(url);
+            if (in instanceof RelayInputStream r) {
+                relay = r;
+            } else {
+                in = openDirect(url);
+            }
+            stream = in;
+            if (stopping.get()) return;
 
-            InputStream raw = conn.getInputStream();
-            stream = new BufferedInputStream(raw, 256 * 1024);
+            final Bitstream bs = new Bitstream(in);
+            bitstream = bs;
 
-            final VolumeAudioDevice device = new VolumeAudioDevice(volumePercent);
-            final AdvancedPlayer p = new AdvancedPlayer(stream, device);
+            decodeLoop(bs);
 
-            player = p;
-            p.play();
+            // A live stream that simply ends is a failure too: let the controller reconnect.
+            if (!stopping.get()) {
+                failed = true;
+            }
         } catch (Throwable t) {
             // If we aren't stopping intentionally, mark as failed so controller can switch track.
             if (!stopping.get()) {
                 failed = true;
             }
         } finally {
-            closeQuietly(player);
-            player = null;
+            closeQuietly(device);
+            device = null;
+            closeQuietly(bitstream);
+            bitstream = null;
             closeQuietly(stream);
             stream = null;
+            icy = null;
+            relay = null;
+        }
+    }
+
+    private InputStream openDirect(String url) throws Exception {
+        final HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setInstanceFollowRedirects(true);
+        conn.setConnectTimeout(8_000);
+        conn.setReadTimeout(15_000);
+        conn.setRequestProperty("User-Agent", "AvilixRadioMod");
+        // Ask Shoutcast/Icecast to interleave "now playing" metadata into this same connection.
+        conn.setRequestProperty("Icy-MetaData", "1");
+        conn.connect();
+
+        InputStream raw = conn.getInputStream();
+        InputStream in = new BufferedInputStream(raw, 256 * 1024);
+
+        final int metaInt = conn.getHeaderFieldInt("icy-metaint", 0);
+        if (metaInt > 0) {
+            final IcyMetadataInputStream demux = new IcyMetadataInputStream(in, metaInt);
+            icy = demux;
+            in = demux;
+        }
+        return in;
+    }
+
+    private void decodeLoop(Bitstream bs) throws Exception {
+        Decoder decoder = null;
+        VolumeAudioDevice dev = null;
+        boolean mono = false; // the decoder currently downmixes
+        int badInARow = 0;
+
+        while (!stopping.get()) {
+            final Header h;
+            try {
+                h = bs.readFrame();
+            } catch (BitstreamException e) {
+                // I/O errors and truncated streams are not recoverable by resyncing.
+                final int code = e.getErrorCode();
+                if (code == BitstreamErrors.STREAM_ERROR || code == BitstreamErrors.UNEXPECTED_EOF) throw e;
+
+                // Drop the broken frame; the next readFrame() scans for the next sync word.
+                bs.closeFrame();
+                skippedFrames++;
+                if (++badInARow > MAX_CONSECUTIVE_BAD_FRAMES) throw e;
+                continue;
+            }
+
+            if (h == null) return; // end of stream
+
+            if (paused) {
+                // Warm hold: release the output line, keep the socket drained in real time,
+                // but don't decode anything (readFrame() only needs the header to skip the payload).
+                if (dev != null) {
+                    closeQuietly(dev);
+                    dev = null;
+                    device = null;
+                    decoder = null;
+                }
+                bs.closeFrame();
+                continue;
+            }
+
+            if (dev == null) {
+                // A fresh decoder avoids decoding against a stale bit reservoir after a hold.
+                decoder = new Decoder();
+                dev = new VolumeAudioDevice();
+                dev.open(decoder);
+                device = dev;
+                mono = false;
+            }
+
+            // The layer decoder only exists after the first frame, so that one always decodes in stereo.
+            final DecodeQuality q = quality;
+            if (q.mono != mono && Layer3Channels.setMono(decoder, q.mono)) {
+                mono = q.mono;
+            }
+
+            try {
+                final long t0 = System.nanoTime();
+                final SampleBuffer out = (SampleBuffer) decoder.decodeFrame(h, bs);
+                final long dt = System.nanoTime() - t0;
+                lastDecodeNanos = dt;
+                final long avg = avgDecodeNanos;
+                avgDecodeNanos = avg == 0L ? dt : avg + (dt - avg) / 16;
+
+                dev.writeFrame(out, mono, q.halfRate);
+                badInARow = 0;
+            } catch (Exception e) {
+                // Corrupt frame (JLayer can also throw runtime exceptions on garbage data): skip it.
+                skippedFrames++;
+                if (++badInARow > MAX_CONSECUTIVE_BAD_FRAMES) {
+                    throw new BitstreamException(BitstreamErrors.UNKNOWN_ERROR, e);
+                }
+            } finally {
+                bs.closeFrame();
+            }
         }
     }
 
     private static void closeQuietly(Object o) {
         try {
             if (o == null) return;
-            if (o instanceof AdvancedPlayer ap) {
-                ap.close();
+            if (o instanceof AudioDevice d) {
+                d.close();
+            } else if (o instanceof Bitstream b) {
+                b.close();
             } else if (o instanceof Closeable c) {
                 c.close();
             }
@@ -114,38 +403,148 @@ public final class Mp3StreamPlayer {
         }
     }
 
-    /** Audio device that applies volume by scaling PCM samples. */
-    private static final class VolumeAudioDevice extends JavaSoundAudioDevice {
-        private final AtomicInteger volumePercent;
+    /**
+     * Audio device that applies volume and pan by scaling PCM samples.
+     * The line is always opened as 16-bit stereo; mono decoder output is duplicated to both channels.
+     */
+    private final class VolumeAudioDevice extends JavaSoundAudioDevice {
+        private final PcmKernels kernels = PcmKernels.get();
+        private final EffectsChain effects = new EffectsChain();
+        private final Resampler resampler = new Resampler();
 
-        private VolumeAudioDevice(AtomicInteger volumePercent) {
-            this.volumePercent = volumePercent;
-        }
+        private int lineRate = 0; // 0 = line not opened yet
+        private float[] work = new float[0];
+        private float[] resampled = new float[0];
+        private short[] out = new short[0];
+
+        // Ramp being followed: its target and the gains it started from at target.startNanos. A new
+        // line (first play or leaving warm hold) starts at the target: the connection was already
+        // running, so there is nothing to fade in from.
+        private @Nullable GainTarget ramp = null;
+        private float fromL = 0f;
+        private float fromR = 0f;
+
+        /**
+         * @param downmixed the decoder wrote one channel into the even slots of a stereo buffer
+         * @param halfRate  drop to half the station's rate, if the frame gets resampled anyway
+         */
+        void writeFrame(SampleBuffer buf, boolean downmixed, boolean halfRate) throws JavaLayerException {
+            final int inRate = buf.getSampleFrequency();
+            if (lineRate == 0) {
+                // Always stereo, so a mono station and a stereo one share the same line format.
+                final int rate = outputRate;
+                lineRate = rate > 0 ? rate : inRate;
+                setAudioFormat(new AudioFormat(lineRate, 16, 2, true, false));
+            }
 
-        @Override
-        public void write(short[] samples, int offs, int len) throws javazoom.jl.decoder.JavaLayerException {
-            int v = volumePercent.get();
+            // At the line's own rate halving would add a resampling pass instead of saving one.
+            final boolean half = halfRate && inRate != lineRate;
+            final int rate = half ? inRate / 2 : inRate;
+            resampler.configure(rate, lineRate, resamplerQuality);
 
-            // 0..100 -> 0..1, square curve (nicer at low volumes)
-            float t = v / 100.0f;
-            float gain = t * t;
+            final short[] samples = buf.getBuffer();
+            final int len = buf.getBufferLength();
+            final boolean mono = buf.getChannelCount() == 1;
+            final int fullLen = mono ? len * 2 : len;
+            final int outLen = half ? fullLen / 2 : fullLen;
+            if (work.length < fullLen) work = new float[fullLen];
 
-            if (gain <= 0.0001f) {
-                short[] zeros = new short[len];
-                super.write(zeros, 0, len);
+            final int lineLen = resampler.isIdentity() ? outLen : resampler.maxOutputFrames(outLen / 2) * 2;
+            if (out.length < lineLen) out = new short[lineLen];
+
+            // Gains at the start of this frame, read off the ramp by the clock rather than carried
+            // over from the previous frame, so a late frame or a missed tick doesn't shift the fade.
+            final int ms = rampMillis;
+            final GainTarget target = gainTarget;
+            if (ramp == null) {
+                fromL = target.left();
+                fromR = target.right();
+            } else if (target != ramp) {
+                // Retarget: the new ramp starts where the old one was when the new target was set.
+                fromL = rampAt(ramp, fromL, ramp.left(), target.startNanos(), ms);
+                fromR = rampAt(ramp, fromR, ramp.right(), target.startNanos(), ms);
+            }
+            ramp = target;
+            final long now = System.nanoTime();
+            final float targetL = target.left();
+            final float targetR = target.right();
+            float curL = rampAt(target, fromL, targetL, now, ms);
+            float curR = rampAt(target, fromR, targetR, now, ms);
+
+            final boolean settled = Math.abs(targetL - curL) < 1.0e-5f && Math.abs(targetR - curR) < 1.0e-5f;
+            if (settled && targetL <= 0.0001f && targetR <= 0.0001f && resampler.isIdentity()) {
+                Arrays.fill(out, 0, outLen, (short) 0);
+                write(out, 0, outLen);
                 return;
             }
 
-            short[] out = new short[len];
-            for (int i = 0; i < len; i++) {
-                int s = samples[offs + i];
-                int scaled = Math.round(s * gain);
-                if (scaled > 32767) scaled = 32767;
-                if (scaled < -32768) scaled = -32768;
-                out[i] = (short) scaled;
+            final float[] w = work;
+            if (mono) {
+                for (int i = 0; i < len; i++) {
+                    final float v = samples[i];
+                    w[2 * i] = v;
+                    w[2 * i + 1] = v;
+                }
+            } else if (downmixed) {
+                for (int i = 0; i < len; i += 2) {
+                    final float v = samples[i];
+                    w[i] = v;
+                    w[i + 1] = v;
+                }
+            } else {
+                kernels.toFloat(samples, w, len);
+            }
+            if (half) {
+                // Average sample pairs: a cheap anti-alias step before dropping every other frame.
+                // Only used far away, where the distance muffle already cuts most of what would alias.
+                for (int i = 0, j = 0; j < outLen; i += 4, j += 2) {
+                    w[j] = (w[i] + w[i + 2]) * 0.5f;
+                    w[j + 1] = (w[i + 1] + w[i + 3]) * 0.5f;
+                }
+            }
+
+            if (settled) {
+                // Constant gain for the whole frame.
+                kernels.gainStereo(w, outLen, targetL, targetR);
+            } else {
+                // Within the frame: the same ramp as a one-pole glide per sample frame,
+                // k = 1 - e^(-1 / (tau * rate)).
+                final float k = (float) (1.0 - Math.exp(-1000.0 / (ms * (double) rate)));
+                for (int i = 0; i + 1 < outLen; i += 2) {
+                    curL += (targetL - curL) * k;
+                    curR += (targetR - curR) * k;
+                    w[i] *= curL;
+                    w[i + 1] *= curR;
+                }
             }
 
-            super.write(out, 0, len);
+            final int eq = eqPacked;
+            effects.configure(rate, muffle, (byte) eq, (byte) (eq >> 8), (byte) (eq >> 16));
+            if (!effects.isBypass()) {
+                final long t0 = System.nanoTime();
+                effects.process(w, outLen);
+                final long dt = System.nanoTime() - t0;
+                final long avg = avgDspNanos;
+                avgDspNanos = avg == 0L ? dt : avg + (dt - avg) / 16;
+            }
+
+            if (resampler.isIdentity()) {
+                kernels.toShortSaturating(w, out, outLen);
+                write(out, 0, outLen);
+            } else {
+                if (resampled.length < lineLen) resampled = new float[lineLen];
+                final int frames = resampler.process(w, outLen / 2, resampled);
+                kernels.toShortSaturating(resampled, out, frames * 2);
+                write(out, 0, frames * 2);
+            }
+        }
+
+        /** Gain of a ramp from {@code from} (at its start) towards {@code to}, at time {@code nanos}. */
+        private static float rampAt(GainTarget ramp, float from, float to, long nanos, int ms) {
+            if (ms <= 0) return to;
+            final long dt = nanos - ramp.startNanos();
+            if (dt <= 0L) return from;
+            return to + (from - to) * (float) Math.exp(-dt / (ms * 1.0e6));
         }
     }
 }
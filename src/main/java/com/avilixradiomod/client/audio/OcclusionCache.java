@@ -0,0 +1,160 @@
+package com.avilixradiomod.client.audio;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Counts occluding blocks between the listener and each emitter, with per-emitter caching.
+ *
+ * A cached result is reused until the listener moves more than {@link #MOVE_THRESHOLD} blocks,
+ * one of the blocks it hit changes (cheap: only those few positions are re-read), or it gets older
+ * than {@link #MAX_AGE_MS} (catches walls built into the path). At most {@link #MAX_RAYCASTS_PER_SCAN}
+ * rays are cast per scan; anything over budget keeps its stale value until the next scan. An emitter
+ * that has never been cast counts as fully occluded until it is (quiet rather than too loud), and
+ * {@link #NEW_EMITTER_RESERVE} casts of every scan are kept for such emitters so stale refreshes
+ * can't starve them. Client thread only.
+ */
+final class OcclusionCache {
+
+    private static final double MOVE_THRESHOLD = 1.0;
+    private static final long MAX_AGE_MS = 3_000L;
+    private static final int MAX_RAYCASTS_PER_SCAN = 16;
+    private static final int NEW_EMITTER_RESERVE = 4;
+
+    /** Counting stops here; more walls don't make it any quieter. */
+    private static final int MAX_WALLS = 8;
+
+    /** Safety cap on DDA steps (maxHearDistance is at most 128). */
+    private static final int MAX_STEPS = 512;
+
+    private static final class Entry {
+        @Nullable Vec3 from; // null = never cast
+        long castAtMs;
+        int walls = MAX_WALLS;
+        long[] occluders = new long[0];
+        BlockState[] states = new BlockState[0];
+        int seenScan;
+    }
+
+    private final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+    private @Nullable Level level;
+    private int scan = 0;
+    private int budget = 0;
+
+    void beginScan(Level level) {
+        if (this.level != level) {
+            entries.clear();
+            this.level = level;
+        }
+        scan++;
+        budget = MAX_RAYCASTS_PER_SCAN;
+    }
+
+    /** Drops entries for emitters that were not looked at in this scan. */
+    void endScan() {
+        entries.values().removeIf(e -> e.seenScan != scan);
+    }
+
+    void clear() {
+        entries.clear();
+        level = null;
+    }
+
+    /** Occluding blocks between {@code from} and the centre of {@code to}, 0..{@link #MAX_WALLS}. */
+    int walls(Level level, Vec3 from, BlockPos to, long now) {
+        final long key = to.asLong();
+        Entry e = entries.get(key);
+        if (e == null) {
+            e = new Entry();
+            entries.put(key, e);
+        }
+        e.seenScan = scan;
+        if (e.from != null) {
+            if (isValid(level, e, from, now)) return e.walls;
+            if (budget <= NEW_EMITTER_RESERVE) return e.walls;
+        } else if (budget <= 0) {
+            return e.walls;
+        }
+
+        budget--;
+        cast(level, from, to, e);
+        e.from = from;
+        e.castAtMs = now;
+        return e.walls;
+    }
+
+    private static boolean isValid(Level level, Entry e, Vec3 from, long now) {
+        if (now - e.castAtMs >= MAX_AGE_MS) return false;
+        if (e.from.distanceToSqr(from) > MOVE_THRESHOLD * MOVE_THRESHOLD) return false;
+        final BlockPos.MutableBlockPos p = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < e.occluders.length; i++) {
+            if (level.getBlockState(p.set(e.occluders[i])) != e.states[i]) return false;
+        }
+        return true;
+    }
+
+    /** Voxel walk (Amanatides-Woo) from the listener to the emitter block, skipping both end cells. */
+    private static void cast(Level level, Vec3 from, BlockPos to, Entry e) {
+        final Vec3 end = Vec3.atCenterOf(to);
+        final double dx = end.x - from.x;
+        final double dy = end.y - from.y;
+        final double dz = end.z - from.z;
+
+        int x = Mth.floor(from.x);
+        int y = Mth.floor(from.y);
+        int z = Mth.floor(from.z);
+
+        final int stepX = dx > 0 ? 1 : -1;
+        final int stepY = dy > 0 ? 1 : -1;
+        final int stepZ = dz > 0 ? 1 : -1;
+
+        final double tDeltaX = dx == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dx);
+        final double tDeltaY = dy == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dy);
+        final double tDeltaZ = dz == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dz);
+
+        double tMaxX = dx == 0 ? Double.MAX_VALUE : (stepX > 0 ? (x + 1 - from.x) : (from.x - x)) * tDeltaX;
+        double tMaxY = dy == 0 ? Double.MAX_VALUE : (stepY > 0 ? (y + 1 - from.y) : (from.y - y)) * tDeltaY;
+        double tMaxZ = dz == 0 ? Double.MAX_VALUE : (stepZ > 0 ? (z + 1 - from.z) : (from.z - z)) * tDeltaZ;
+
+        final long[] hits = new long[MAX_WALLS];
+        final BlockState[] states = new BlockState[MAX_WALLS];
+        int walls = 0;
+
+        final BlockPos.MutableBlockPos p = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < MAX_STEPS && walls < MAX_WALLS; i++) {
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                if (tMaxX > 1.0) break;
+                x += stepX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxZ) {
+                if (tMaxY > 1.0) break;
+                y += stepY;
+                tMaxY += tDeltaY;
+            } else {
+                if (tMaxZ > 1.0) break;
+                z += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+
+            if (x == to.getX() && y == to.getY() && z == to.getZ()) break;
+
+            final BlockState state = level.getBlockState(p.set(x, y, z));
+            if (state.canOcclude()) {
+                hits[walls] = p.asLong();
+                states[walls] = state;
+                walls++;
+            }
+        }
+
+        e.walls = walls;
+        e.occluders = Arrays.copyOf(hits, walls);
+        e.states = Arrays.copyOf(states, walls);
+    }
+}
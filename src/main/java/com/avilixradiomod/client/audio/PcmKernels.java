@@ -0,0 +1,88 @@
+package com.avilixradiomod.client.audio;
+
+/**
+ * Inner loops of the PCM path (interleaved stereo floats). {@link #get()} picks the SIMD version
+ * ({@code jdk.incubator.vector}) once at startup if the JVM has that module, else the scalar one.
+ * The Vector API only exists with {@code --add-modules jdk.incubator.vector} (set for the dev client
+ * run and the benchmarks; players add it to their JVM arguments), so its implementation is loaded
+ * reflectively and never touched otherwise. {@code PcmKernelsBenchmark} measures both against the
+ * old per-sample loop.
+ */
+interface PcmKernels {
+
+    /** {@code dst[i] = src[i]}. */
+    void toFloat(short[] src, float[] dst, int n);
+
+    /** Scales interleaved stereo in place: even samples by {@code gainL}, odd ones by {@code gainR}. */
+    void gainStereo(float[] buf, int n, float gainL, float gainR);
+
+    /** {@code dst[i] += src[i] * gain} (summing several streams into one buffer). */
+    void mixAccumulate(float[] dst, float[] src, int n, float gain);
+
+    /**
+     * Rounds to the nearest integer (halves away from zero), clamps to the 16-bit range and stores.
+     * {@code src} may be overwritten.
+     */
+    void toShortSaturating(float[] src, short[] dst, int n);
+
+    String name();
+
+    static PcmKernels get() {
+        return Holder.INSTANCE;
+    }
+
+    final class Holder {
+        private Holder() {}
+
+        static final PcmKernels INSTANCE = select();
+
+        private static PcmKernels select() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    return (PcmKernels) Class.forName("com.avilixradiomod.client.audio.VectorPcmKernels")
+                            .getDeclaredConstructor().newInstance();
+                } catch (Throwable ignored) {
+                    // Module present but not usable from here: fall back.
+                }
+            }
+            return new Scalar();
+        }
+    }
+
+    final class Scalar implements PcmKernels {
+        @Override
+        public void toFloat(short[] src, float[] dst, int n) {
+            for (int i = 0; i < n; i++) dst[i] = src[i];
+        }
+
+        @Override
+        public void gainStereo(float[] buf, int n, float gainL, float gainR) {
+            for (int i = 0; i + 1 < n; i += 2) {
+                buf[i] *= gainL;
+                buf[i + 1] *= gainR;
+            }
+        }
+
+        @Override
+        public void mixAccumulate(float[] dst, float[] src, int n, float gain) {
+            for (int i = 0; i < n; i++) dst[i] += src[i] * gain;
+        }
+
+        @Override
+        public void toShortSaturating(float[] src, short[] dst, int n) {
+            for (int i = 0; i < n; i++) {
+                float v = src[i];
+                // Round first (the cast below truncates), then clamp.
+                v += v < 0f ? -0.5f : 0.5f;
+                if (v > 32767f) v = 32767f;
+                if (v < -32768f) v = -32768f;
+                dst[i] = (short) v;
+            }
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    }
+}
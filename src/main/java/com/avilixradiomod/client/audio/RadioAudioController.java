@@ -1,8 +1,12 @@
 package com.avilixradiomod.client.audio;
 
+import com.avilixradiomod.audio.NowPlaying;
 import com.avilixradiomod.blockentity.RadioBlockEntity;
 import com.avilixradiomod.blockentity.SpeakerBlockEntity;
+import com.avilixradiomod.client.ClientUrlTable;
 import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.network.AudibleEmittersPayload;
+import com.avilixradiomod.server.sync.AudibilityService;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.BlockPos;
 import net.minecraft.util.Mth;
@@ -10,19 +14,49 @@ import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Client-side audio controller.
  *
  * Key rule to prevent "double sound":
  *  - For each distinct URL, we decode/play the stream ONLY ONCE.
- *  - If multiple blocks (radio/speakers) use the same URL nearby, we choose a single "best" emitter
- *    (radio has priority over speaker) and compute volume from that emitter.
+ *  - If multiple blocks (radio/speakers) use the same URL nearby, their loudness is summed as energy
+ *    (two equal speakers are ~1.4x as loud as one) and a stereo pan is derived from where they are
+ *    relative to the listener's yaw. Both are applied in the PCM stage of that one decode.
+ *
+ * When a stream fades out it is put into "warm hold" (connection open, no decode, no output line)
+ * for {@code holdTimeoutSeconds}, so coming back into range resumes it instantly.
+ * Quiet (far) streams are decoded at a cheaper {@link DecodeQuality}.
+ *
+ * Streams just outside hearing range (the pre-connect ring, or where the player is heading) are
+ * connected ahead of time in warm hold, so crossing the edge doesn't start with DNS/TLS/buffering.
+ * Pre-connected and held streams have separate caps, {@code maxPreconnects} (the ones closest to
+ * becoming audible win) and {@code maxHeldStreams} (the most recently held win); the rest are closed.
+ *
+ * Distance and solid blocks between listener and emitter muffle it (low-pass), and blocks also
+ * attenuate it ({@link OcclusionCache}); the low-pass amount of a URL is the energy-weighted mean
+ * over its emitters. The EQ is that of the radio behind the chosen emitter.
+ *
+ * Churn control: the loudest emitter only changes if a challenger is clearly louder and the current
+ * one has been chosen for a while, a stream only (re)starts a margin above the stop threshold, and a
+ * freshly started stream is not put into hold right away. {@link #getRestartCount()} counts streams
+ * that had to reconnect shortly after being stopped.
+ *
+ * Without a level/player (dimension change, death screen, world reload) streams are suspended in
+ * hold instead of closed; if their URLs are audible again in the new level they resume on the same
+ * connection, otherwise they close after {@code reattachGraceSeconds}.
+ *
+ * If the server sends the audible emitter set ({@link AudibleEmitters}), we use it instead of
+ * scanning loaded chunks.
  */
 public final class RadioAudioController {
     private RadioAudioController() {}
@@ -30,12 +64,14 @@ public final class RadioAudioController {
     private static final class Candidate {
         final BlockPos pos;
         final int priority; // 2 = radio, 1 = speaker
-        final float targetVolume; // 0..100
+        final float targetVolume; // 0..100, after occlusion
+        final float muffle; // 0 = clear .. 1 = fully muffled
 
-        Candidate(BlockPos pos, int priority, float targetVolume) {
+        Candidate(BlockPos pos, int priority, float targetVolume, float muffle) {
             this.pos = pos;
             this.priority = priority;
             this.targetVolume = targetVolume;
+            this.muffle = muffle;
         }
     }
 
@@ -44,8 +80,17 @@ public final class RadioAudioController {
         Mp3StreamPlayer player;
         float smoothVolume = 0f; // 0..100
         float targetVolume = 0f; // 0..100
-        BlockPos currentEmitter = null;
+        BlockPos currentEmitter = null; // loudest emitter (radio wins ties)
+        long emitterSinceMs = 0L; // when currentEmitter was last switched
+        long startedAtMs = 0L; // when the current player was started
+        List<Candidate> emitters = List.of(); // all audible emitters of this URL, for panning
+        float smoothPan = 0f; // -1 = left .. 1 = right
+        float muffle = 0f; // energy-weighted low-pass amount (distance + occlusion), 0..1
+        int eqLow, eqMid, eqHigh; // EQ of the radio behind currentEmitter, dB
         long cooldownUntilMs = 0L;
+        long holdSinceMs = 0L; // 0 = not held
+        boolean preconnect = false; // inaudible, but inside the pre-connect ring
+        boolean overCap = false; // inaudible and beyond the cap on inaudible connections
 
         StreamInstance(String url) {
             this.url = url;
@@ -54,23 +99,58 @@ public final class RadioAudioController {
         void stop() {
             if (player != null) {
                 try { player.stop(); } catch (Throwable ignored) {}
+                RECENTLY_STOPPED.put(url, System.currentTimeMillis());
             }
             player = null;
             smoothVolume = 0f;
             targetVolume = 0f;
             currentEmitter = null;
+            emitterSinceMs = 0L;
+            startedAtMs = 0L;
+            emitters = List.of();
+            smoothPan = 0f;
+            muffle = 0f;
+            eqLow = eqMid = eqHigh = 0;
+            holdSinceMs = 0L;
         }
     }
 
+    /** Volume margin (0..100) a stream must drop below a tier edge before decoding gets cheaper. */
+    private static final float QUALITY_HYSTERESIS = 2.0f;
+
+    /** Low-pass amount at the edge of hearing range from distance alone (0..1). */
+    private static final float DISTANCE_MUFFLE = 0.4f;
+
+    /** Score margin (0..100) a challenger needs over the current emitter to take over. */
+    private static final float EMITTER_SWITCH_MARGIN = 3.0f;
+
+    /** Minimum time an emitter stays chosen, and a started stream keeps playing before it may be held. */
+    private static final long MIN_DWELL_MS = 2_000L;
+
+    /** A stream only starts once its target is this far (0..100) above stopThreshold. */
+    private static final float START_MARGIN = 1.5f;
+
+    /** A start within this time after the same URL was stopped counts as a restart. */
+    private static final long RESTART_WINDOW_MS = 30_000L;
+
+    /** URL -> when its player was last stopped (for the restart counter). */
+    private static final Map<String, Long> RECENTLY_STOPPED = new HashMap<>();
+    private static long restartCount = 0L;
+
     private static final Map<String, StreamInstance> INSTANCES = new HashMap<>();
+    private static final OcclusionCache OCCLUSION = new OcclusionCache();
     private static int tickCounter = 0;
 
+    /** When the level/player went away (0 = we have one). */
+    private static long suspendedSinceMs = 0L;
+
     public static void clientTick() {
         final Minecraft mc = Minecraft.getInstance();
         if (mc.level == null || mc.player == null) {
-            stopAll();
+            suspendAll();
             return;
         }
+        suspendedSinceMs = 0L;
 
         final int scanEveryTicks = ModConfigs.COMMON.scanEveryTicks.get();
         if (scanEveryTicks <= 0) return;
@@ -86,27 +166,84 @@ public final class RadioAudioController {
         if (mc.level == null || mc.player == null) return;
 
         final int maxDist = ModConfigs.COMMON.maxHearDistance.get();
+        final int ring = ModConfigs.COMMON.preconnectDistance.get();
+        final int lookahead = ModConfigs.COMMON.preconnectLookaheadTicks.get();
         final Vec3 listener = mc.player.position();
-        final AABB box = new AABB(listener.x - maxDist, listener.y - maxDist, listener.z - maxDist,
-                listener.x + maxDist, listener.y + maxDist, listener.z + maxDist);
 
-        // Gather best candidate per URL.
+        // Where the player will be if they keep moving like this (velocity is per tick).
+        final Vec3 predicted = lookahead > 0
+                ? listener.add(mc.player.getDeltaMovement().scale(lookahead))
+                : listener;
+        final double reach = maxDist + Math.max(ring, Math.min(AudibilityService.MAX_PREDICTION_BLOCKS, predicted.distanceTo(listener)));
+
+        final AABB box = new AABB(listener.x - reach, listener.y - reach, listener.z - reach,
+                listener.x + reach, listener.y + reach, listener.z + reach);
+
+        // Gather best candidate and all audible emitters per URL.
         final Map<String, Candidate> bestByUrl = new HashMap<>();
+        final Map<String, List<Candidate>> emittersByUrl = new HashMap<>();
+        final long now = System.currentTimeMillis();
 
-        scanLoadedAudioBlockEntities(mc, box, (pos, urlRaw, playingRaw, volumeRaw, priority) -> {
+        final boolean occlusion = ModConfigs.COMMON.occlusionEnabled.get();
+        final double perBlock = ModConfigs.COMMON.occlusionPerBlock.get();
+        final Vec3 ear = mc.player.getEyePosition();
+        if (occlusion) OCCLUSION.beginScan(mc.level);
+        // Inaudible URLs worth pre-connecting -> how close they are to becoming audible (lower = sooner).
+        final Map<String, Double> preconnectByUrl = new HashMap<>();
+
+        final AudioSourceConsumer consumer = (pos, urlRaw, playingRaw, volumeRaw, priority) -> {
             final String url = safeUrl(urlRaw);
             if (url.isEmpty()) return;
             if (!playingRaw) return;
 
-            final float target = computeTargetVolume(listener, pos, volumeRaw, maxDist);
-            if (target <= 0.001f) return;
+            float target = computeTargetVolume(listener, pos, volumeRaw, maxDist);
+            float muffle = 0f;
+            if (target > 0.001f) {
+                // Far away sounds lose their highs first.
+                final float distFrac = (float) Math.min(1.0, listener.distanceTo(Vec3.atCenterOf(pos)) / maxDist);
+                float clear = 1f - distFrac * DISTANCE_MUFFLE;
+                if (occlusion) {
+                    final int walls = OCCLUSION.walls(mc.level, ear, pos, now);
+                    if (walls > 0) {
+                        target *= (float) Math.pow(1.0 - perBlock, walls);
+                        clear *= (float) Math.pow(0.5, walls);
+                    }
+                }
+                muffle = 1f - clear;
+            }
+            if (target <= 0.001f) {
+                if (volumeRaw <= 0) return;
+                final Vec3 p = Vec3.atCenterOf(pos);
+                final double dist = listener.distanceTo(p);
+                final double predictedDist = predicted.distanceTo(p);
+                if (dist < maxDist + ring || predictedDist < maxDist) {
+                    preconnectByUrl.merge(url, Math.min(dist, predictedDist), Math::min);
+                }
+                return;
+            }
 
-            final Candidate cand = new Candidate(pos.immutable(), priority, target);
+            final Candidate cand = new Candidate(pos.immutable(), priority, target, muffle);
+            emittersByUrl.computeIfAbsent(url, k -> new ArrayList<>(2)).add(cand);
             final Candidate prev = bestByUrl.get(url);
             if (prev == null || isBetter(cand, prev)) {
                 bestByUrl.put(url, cand);
             }
-        });
+        };
+
+        if (AudibleEmitters.isActiveFor(mc.level)) {
+            // The server already tells us which emitters are in range: no chunk scan.
+            for (AudibleEmittersPayload.Emitter e : AudibleEmitters.all()) {
+                final BlockPos pos = BlockPos.of(e.pos());
+                if (!box.contains(Vec3.atCenterOf(pos))) continue;
+                // Null while the id is being looked up; the emitter shows up on a later scan.
+                final String url = ClientUrlTable.resolve(e.urlId());
+                if (url == null) continue;
+                consumer.accept(pos, url, e.playing(), e.volume(), e.priority());
+            }
+        } else {
+            scanLoadedAudioBlockEntities(mc, box, consumer);
+        }
+        if (occlusion) OCCLUSION.endScan();
 
         // Apply targets to instances.
         // 1) Update or create instances for URLs we see.
@@ -114,8 +251,17 @@ public final class RadioAudioController {
             final String url = e.getKey();
             final Candidate best = e.getValue();
             final StreamInstance inst = INSTANCES.computeIfAbsent(url, StreamInstance::new);
-            inst.targetVolume = clampVol(best.targetVolume);
-            inst.currentEmitter = best.pos;
+            final List<Candidate> all = emittersByUrl.get(url);
+            inst.targetVolume = clampVol(combinedVolume(all));
+            inst.muffle = combinedMuffle(all);
+            inst.emitters = all;
+
+            final BlockPos chosen = pickEmitter(inst, best, all, now);
+            if (!chosen.equals(inst.currentEmitter)) {
+                inst.currentEmitter = chosen;
+                inst.emitterSinceMs = now;
+            }
+            readEq(mc, inst);
         }
 
         // 2) URLs not seen -> target 0 (fade out and stop).
@@ -123,17 +269,158 @@ public final class RadioAudioController {
             if (!bestByUrl.containsKey(inst.url)) {
                 inst.targetVolume = 0f;
                 inst.currentEmitter = null;
+                inst.emitters = List.of();
+                inst.muffle = 0f;
             }
         }
+
+        // 3) Inaudible connections: pre-connects and held streams, each under its own global cap.
+        final Set<String> inaudible = pickInaudible(preconnectByUrl, bestByUrl,
+                ModConfigs.COMMON.maxPreconnects.get(), ModConfigs.COMMON.maxHeldStreams.get());
+        for (String url : inaudible) {
+            if (preconnectByUrl.containsKey(url)) INSTANCES.computeIfAbsent(url, StreamInstance::new);
+        }
+        for (StreamInstance inst : INSTANCES.values()) {
+            final boolean audible = bestByUrl.containsKey(inst.url);
+            inst.preconnect = !audible && preconnectByUrl.containsKey(inst.url) && inaudible.contains(inst.url);
+            inst.overCap = !audible && !inaudible.contains(inst.url);
+        }
+    }
+
+    /**
+     * URLs allowed an inaudible connection: at most {@code maxPreconnects} of those closest to
+     * becoming audible (pre-connect ring or predicted path), plus at most {@code maxHeld} held
+     * streams outside the ring, most recently held first.
+     */
+    private static Set<String> pickInaudible(Map<String, Double> preconnectByUrl, Map<String, Candidate> audible,
+                                             int maxPreconnects, int maxHeld) {
+        final Set<String> out = new HashSet<>();
+
+        if (maxPreconnects > 0) {
+            final List<String> preconnects = new ArrayList<>();
+            for (String url : preconnectByUrl.keySet()) {
+                if (!audible.containsKey(url)) preconnects.add(url);
+            }
+            if (preconnects.size() > maxPreconnects) {
+                preconnects.sort(Comparator.comparingDouble(preconnectByUrl::get));
+            }
+            out.addAll(preconnects.subList(0, Math.min(maxPreconnects, preconnects.size())));
+        }
+
+        if (maxHeld > 0) {
+            final List<StreamInstance> held = new ArrayList<>();
+            for (StreamInstance inst : INSTANCES.values()) {
+                if (inst.player != null && !audible.containsKey(inst.url) && !preconnectByUrl.containsKey(inst.url)) {
+                    held.add(inst);
+                }
+            }
+            if (held.size() > maxHeld) {
+                // Not held yet (still in its dwell time) counts as the newest.
+                held.sort(Comparator.comparingLong(inst -> inst.holdSinceMs == 0L ? Long.MIN_VALUE : -inst.holdSinceMs));
+            }
+            for (int i = 0; i < held.size() && i < maxHeld; i++) out.add(held.get(i).url);
+        }
+        return out;
+    }
+
+    /** EQ of the radio that feeds the chosen emitter (the radio itself, or a speaker's linked radio if loaded). */
+    private static void readEq(Minecraft mc, StreamInstance inst) {
+        RadioBlockEntity radio = null;
+        if (mc.level != null && inst.currentEmitter != null) {
+            final var be = mc.level.getBlockEntity(inst.currentEmitter);
+            if (be instanceof RadioBlockEntity r) {
+                radio = r;
+            } else if (be instanceof SpeakerBlockEntity speaker
+                    && speaker.getRadioPos() != null
+                    && mc.level.dimension().location().equals(speaker.getRadioDim())
+                    && mc.level.getBlockEntity(speaker.getRadioPos()) instanceof RadioBlockEntity r) {
+                radio = r;
+            }
+        }
+        inst.eqLow = radio != null ? radio.getEqLow() : 0;
+        inst.eqMid = radio != null ? radio.getEqMid() : 0;
+        inst.eqHigh = radio != null ? radio.getEqHigh() : 0;
+    }
+
+    /**
+     * Keeps the current emitter unless it is gone, or has been chosen for at least
+     * {@link #MIN_DWELL_MS} and the best candidate beats it by {@link #EMITTER_SWITCH_MARGIN}.
+     */
+    private static BlockPos pickEmitter(StreamInstance inst, Candidate best, List<Candidate> all, long now) {
+        if (inst.currentEmitter == null) return best.pos;
+
+        Candidate current = null;
+        for (Candidate c : all) {
+            if (c.pos.equals(inst.currentEmitter)) {
+                current = c;
+                break;
+            }
+        }
+        if (current == null) return best.pos;
+        if (now - inst.emitterSinceMs < MIN_DWELL_MS) return current.pos;
+        return score(best) > score(current) + EMITTER_SWITCH_MARGIN ? best.pos : current.pos;
+    }
+
+    /** Energy sum of all emitters of one URL: sqrt(sum(v^2)), 0..100. */
+    private static float combinedVolume(List<Candidate> emitters) {
+        double energy = 0.0;
+        for (Candidate c : emitters) {
+            final double a = c.targetVolume / 100.0;
+            energy += a * a;
+        }
+        return (float) (Math.sqrt(energy) * 100.0);
+    }
+
+    /** Energy-weighted low-pass amount of all emitters of one URL, 0..1. */
+    private static float combinedMuffle(List<Candidate> emitters) {
+        double weighted = 0.0;
+        double total = 0.0;
+        for (Candidate c : emitters) {
+            final double w = (double) c.targetVolume * c.targetVolume;
+            weighted += c.muffle * w;
+            total += w;
+        }
+        return total <= 0.0 ? 0f : (float) (weighted / total);
+    }
+
+    /**
+     * Stereo position (-1 = left .. 1 = right) of a set of emitters relative to the listener's yaw,
+     * weighted by each emitter's energy. Emitters right above/below the listener count as centre.
+     */
+    private static float computePan(Vec3 listener, float yawDeg, List<Candidate> emitters) {
+        if (emitters.isEmpty()) return 0f;
+
+        // Minecraft yaw 0 faces +Z; the listener's right-hand side is then -X.
+        final double yaw = Math.toRadians(yawDeg);
+        final double rightX = -Math.cos(yaw);
+        final double rightZ = -Math.sin(yaw);
+
+        double weighted = 0.0;
+        double total = 0.0;
+        for (Candidate c : emitters) {
+            final double w = (double) c.targetVolume * c.targetVolume;
+            if (w <= 0.0) continue;
+            final Vec3 p = Vec3.atCenterOf(c.pos);
+            final double dx = p.x - listener.x;
+            final double dz = p.z - listener.z;
+            final double len = Math.sqrt(dx * dx + dz * dz);
+            final double side = len < 0.5 ? 0.0 : (dx * rightX + dz * rightZ) / len;
+            weighted += side * w;
+            total += w;
+        }
+        if (total <= 0.0) return 0f;
+        return Math.max(-1f, Math.min(1f, (float) (weighted / total)));
     }
 
     private static boolean isBetter(Candidate a, Candidate b) {
         // We want to remove doubling but keep the point of speakers.
         // So we DON'T hard-force "radio always wins".
         // Instead, we give radio a small bonus so it wins when volumes are comparable.
-        final float aScore = a.targetVolume + (a.priority == 2 ? 5.0f : 0.0f);
-        final float bScore = b.targetVolume + (b.priority == 2 ? 5.0f : 0.0f);
-        return aScore > bScore;
+        return score(a) > score(b);
+    }
+
+    private static float score(Candidate c) {
+        return c.targetVolume + (c.priority == 2 ? 5.0f : 0.0f);
     }
 
     private interface AudioSourceConsumer {
@@ -168,28 +455,95 @@ public final class RadioAudioController {
 
     private static void updatePlayback(Minecraft mc) {
         final float smoothing = clamp01((float) ModConfigs.COMMON.smoothing.get().doubleValue());
+        final int rampMs = ModConfigs.COMMON.gainRampMs.get();
         final float stopThreshold = (float) ModConfigs.COMMON.stopThreshold.get().doubleValue();
+        final long holdTimeoutMs = ModConfigs.COMMON.holdTimeoutSeconds.get() * 1000L;
+        final float monoBelow = (float) ModConfigs.COMMON.monoBelowVolume.get().doubleValue();
+        final float halfRateBelow = (float) ModConfigs.COMMON.halfRateBelowVolume.get().doubleValue();
         final long now = System.currentTimeMillis();
+        final Vec3 listener = mc.player != null ? mc.player.position() : Vec3.ZERO;
+        final float yaw = mc.player != null ? mc.player.getYRot() : 0f;
 
         final List<String> toRemove = new ArrayList<>();
 
         for (StreamInstance inst : INSTANCES.values()) {
-            // Smooth towards target.
+            // Control-side smoothing only decides when a stream has faded out; what you hear is
+            // ramped per sample by the player towards targetVolume.
             inst.smoothVolume = inst.smoothVolume + (inst.targetVolume - inst.smoothVolume) * smoothing;
             if (inst.smoothVolume < 0.001f) inst.smoothVolume = 0f;
 
-            // Stop when inaudible.
+            // Pan follows the current yaw every tick (emitter positions only change on rescans).
+            if (!inst.emitters.isEmpty()) {
+                final float pan = computePan(listener, yaw, inst.emitters);
+                inst.smoothPan = inst.smoothPan + (pan - inst.smoothPan) * smoothing;
+            }
+
+            // Inaudible: hold the connection warm, stop once the hold times out.
             if (inst.targetVolume <= 0.001f && inst.smoothVolume <= stopThreshold) {
-                inst.stop();
-                toRemove.add(inst.url);
+                if (inst.preconnect) {
+                    // Pre-connect ring: connect and buffer in hold before the stream becomes audible.
+                    // The hold is refreshed for as long as the URL stays in the ring.
+                    if (inst.player != null && inst.player.consumeFailed()) {
+                        inst.stop();
+                        inst.cooldownUntilMs = now + 5_000L;
+                    } else if (inst.player == null) {
+                        if (inst.cooldownUntilMs <= now) {
+                            try {
+                                inst.player = new Mp3StreamPlayer();
+                                inst.player.setPaused(true);
+                                inst.player.setOutput(ModConfigs.CLIENT.outputSampleRate.get(), ModConfigs.CLIENT.resamplerQuality.get());
+                                inst.player.play(inst.url, 0);
+                                inst.holdSinceMs = now;
+                                noteStart(inst, now);
+                            } catch (Throwable t) {
+                                inst.stop();
+                                inst.cooldownUntilMs = now + 10_000L;
+                            }
+                        }
+                    } else if (!inst.player.isPaused() && now - inst.startedAtMs < MIN_DWELL_MS) {
+                        // Just started and audible a moment ago: same dwell as below before holding.
+                        inst.player.setVolume(0f);
+                    } else {
+                        inst.player.setPaused(true);
+                        inst.holdSinceMs = now;
+                    }
+                    continue;
+                }
+
+                if (inst.player == null || holdTimeoutMs <= 0L || inst.player.consumeFailed()) {
+                    inst.stop();
+                    toRemove.add(inst.url);
+                } else if (now - inst.startedAtMs < MIN_DWELL_MS) {
+                    // Just started: play on (silently) for a moment instead of flipping into hold.
+                    inst.player.setVolume(0f);
+                } else if (inst.overCap) {
+                    // Closer pre-connects and more recent holds have taken the inaudible slots.
+                    inst.stop();
+                    toRemove.add(inst.url);
+                } else if (inst.holdSinceMs == 0L) {
+                    inst.holdSinceMs = now;
+                    inst.player.setPaused(true);
+                } else if (now - inst.holdSinceMs >= holdTimeoutMs) {
+                    inst.stop();
+                    toRemove.add(inst.url);
+                }
                 continue;
             }
 
+            // Audible again while held: resume on the open connection, no fade-in needed.
+            if (inst.holdSinceMs != 0L) {
+                inst.holdSinceMs = 0L;
+                if (inst.player != null) {
+                    inst.player.setPaused(false);
+                    inst.smoothVolume = inst.targetVolume;
+                }
+            }
+
             // If target is very low -> fade without decoding.
             if (inst.targetVolume <= 0.001f) {
                 if (inst.player != null) {
                     try {
-                        inst.player.setVolume(Math.round(inst.smoothVolume));
+                        inst.player.setVolume(0f);
                     } catch (Throwable t) {
                         inst.stop();
                         inst.cooldownUntilMs = now + 10_000L;
@@ -203,11 +557,19 @@ public final class RadioAudioController {
                 continue;
             }
 
-            // Start or update.
+            // Start or update. Starting needs a margin above the stop threshold (hysteresis).
             if (inst.player == null) {
+                if (inst.targetVolume < stopThreshold + START_MARGIN) continue;
                 try {
                     inst.player = new Mp3StreamPlayer();
-                    inst.player.play(inst.url, Math.round(inst.smoothVolume));
+                    inst.player.setQuality(pickQuality(DecodeQuality.FULL, inst.targetVolume, monoBelow, halfRateBelow));
+                    inst.player.setPan(inst.smoothPan);
+                    inst.player.setMuffle(inst.muffle);
+                    inst.player.setEq(inst.eqLow, inst.eqMid, inst.eqHigh);
+                    inst.player.setRampMillis(rampMs);
+                    inst.player.setOutput(ModConfigs.CLIENT.outputSampleRate.get(), ModConfigs.CLIENT.resamplerQuality.get());
+                    inst.player.play(inst.url, inst.targetVolume);
+                    noteStart(inst, now);
                 } catch (Throwable t) {
                     inst.stop();
                     inst.cooldownUntilMs = now + 10_000L;
@@ -221,7 +583,11 @@ public final class RadioAudioController {
                     continue;
                 }
                 try {
-                    inst.player.setVolume(Math.round(inst.smoothVolume));
+                    inst.player.setGain(inst.targetVolume, inst.smoothPan);
+                    inst.player.setMuffle(inst.muffle);
+                    inst.player.setEq(inst.eqLow, inst.eqMid, inst.eqHigh);
+                    inst.player.setRampMillis(rampMs);
+                    inst.player.setQuality(pickQuality(inst.player.getQuality(), inst.targetVolume, monoBelow, halfRateBelow));
                 } catch (Throwable t) {
                     inst.stop();
                     inst.cooldownUntilMs = now + 10_000L;
@@ -234,6 +600,73 @@ public final class RadioAudioController {
         }
     }
 
+    private static void noteStart(StreamInstance inst, long now) {
+        inst.startedAtMs = now;
+        final Long stoppedAt = RECENTLY_STOPPED.remove(inst.url);
+        if (stoppedAt != null && now - stoppedAt < RESTART_WINDOW_MS) {
+            restartCount++;
+        }
+        if (RECENTLY_STOPPED.size() > 64) {
+            RECENTLY_STOPPED.values().removeIf(t -> now - t >= RESTART_WINDOW_MS);
+        }
+    }
+
+    /** Streams that were started again within {@link #RESTART_WINDOW_MS} of being stopped (client thread). */
+    public static long getRestartCount() {
+        return restartCount;
+    }
+
+    /** F3 screen lines: streams, restarts and per-frame cost of the streams being decoded (client thread). */
+    public static void addDebugLines(List<String> out) {
+        int decoding = 0;
+        int held = 0;
+        long skipped = 0L;
+        long decodeNanos = 0L;
+        long dspNanos = 0L;
+        for (StreamInstance inst : INSTANCES.values()) {
+            if (inst.player == null) continue;
+            skipped += inst.player.getSkippedFrames();
+            if (inst.player.isPaused()) {
+                held++;
+                continue;
+            }
+            decoding++;
+            decodeNanos += inst.player.getAvgDecodeNanos();
+            dspNanos += inst.player.getAvgDspNanos();
+        }
+
+        out.add(String.format("Radio: %d decoding, %d held, %d restarts, PCM %s",
+                decoding, held, restartCount, PcmKernels.get().name()));
+        if (decoding > 0) {
+            out.add(String.format("Radio frame: decode %.0f us, effects %.0f us (avg per stream), %d skipped",
+                    decodeNanos / 1000.0 / decoding, dspNanos / 1000.0 / decoding, skipped));
+        }
+    }
+
+    /**
+     * "Now playing" title of the stream for this URL, if it is currently decoded and the station
+     * sends ICY metadata. Client thread only.
+     */
+    @Nullable
+    public static NowPlaying getNowPlaying(String url) {
+        final StreamInstance inst = INSTANCES.get(safeUrl(url));
+        if (inst == null || inst.player == null) return null;
+        return inst.player.getNowPlaying();
+    }
+
+    /**
+     * Decode tier for a stream at this target volume (0..100). Getting cheaper needs the volume to
+     * drop {@link #QUALITY_HYSTERESIS} below the edge, so a volume hovering at an edge doesn't
+     * keep switching tiers.
+     */
+    private static DecodeQuality pickQuality(DecodeQuality current, float volume, float monoBelow, float halfRateBelow) {
+        final float monoEdge = current == DecodeQuality.FULL ? monoBelow - QUALITY_HYSTERESIS : monoBelow;
+        final float halfEdge = current == DecodeQuality.HALF_RATE ? halfRateBelow : halfRateBelow - QUALITY_HYSTERESIS;
+        if (volume < halfEdge) return DecodeQuality.HALF_RATE;
+        if (volume < monoEdge) return DecodeQuality.MONO;
+        return DecodeQuality.FULL;
+    }
+
     private static float computeTargetVolume(Vec3 listener, BlockPos source, int sourceVolume, int maxDist) {
         if (sourceVolume <= 0) return 0f;
         final Vec3 p = Vec3.atCenterOf(source);
@@ -266,10 +699,51 @@ public final class RadioAudioController {
         return Math.max(0f, Math.min(100f, v));
     }
 
+    /**
+     * No level/player: mute and hold everything for the grace period instead of closing the
+     * connections. The next rescan in a level re-targets instances by URL.
+     */
+    private static void suspendAll() {
+        if (INSTANCES.isEmpty()) return;
+
+        final long now = System.currentTimeMillis();
+        final long graceMs = ModConfigs.COMMON.reattachGraceSeconds.get() * 1000L;
+        if (graceMs <= 0L || suspendedSinceMs != 0L && now - suspendedSinceMs >= graceMs) {
+            stopAll();
+            return;
+        }
+        if (suspendedSinceMs == 0L) {
+            suspendedSinceMs = now;
+            // Everything goes into hold now, so the cap on held streams applies: keep the loudest.
+            final List<StreamInstance> byVolume = new ArrayList<>(INSTANCES.values());
+            byVolume.removeIf(inst -> inst.player == null);
+            byVolume.sort(Comparator.comparingDouble((StreamInstance inst) -> inst.smoothVolume).reversed());
+            final int cap = ModConfigs.COMMON.maxHeldStreams.get();
+            for (int i = cap; i < byVolume.size(); i++) {
+                byVolume.get(i).stop();
+                INSTANCES.remove(byVolume.get(i).url);
+            }
+        }
+
+        for (StreamInstance inst : INSTANCES.values()) {
+            inst.targetVolume = 0f;
+            inst.smoothVolume = 0f;
+            inst.currentEmitter = null;
+            inst.emitters = List.of();
+            inst.preconnect = false;
+            inst.overCap = false;
+            if (inst.player == null) continue;
+            // Grace counts as hold time, so after the level is back the normal hold timeout applies.
+            inst.player.setPaused(true);
+            if (inst.holdSinceMs == 0L) inst.holdSinceMs = now;
+        }
+    }
+
     public static void stopAll() {
         for (StreamInstance inst : INSTANCES.values()) {
             inst.stop();
         }
         INSTANCES.clear();
+        OCCLUSION.clear();
     }
 }
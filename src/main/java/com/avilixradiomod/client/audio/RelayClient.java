@@ -0,0 +1,109 @@
+package com.avilixradiomod.client.audio;
+
+import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.network.ModPayloads;
+import com.avilixradiomod.network.RelaySubscribePayload;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client side of the server stream relay.
+ *
+ * {@link #open(String)} asks the server to relay a URL and, if it agrees, returns a stream fed by
+ * relay chunks; otherwise null, and the player connects to the station directly.
+ */
+public final class RelayClient {
+    private RelayClient() {}
+
+    /**
+     * How long the decoder thread waits for the server to answer a subscribe request. The server
+     * only says "ok" once it is connected to the station, so this covers its connect timeout.
+     */
+    private static final long ANSWER_TIMEOUT_MS = 10_000L;
+
+    private static final Map<String, RelayInputStream> BY_URL = new ConcurrentHashMap<>();
+    private static final Map<Integer, RelayInputStream> BY_ID = new ConcurrentHashMap<>();
+
+    /** Decoder thread. Blocks until the server answers (or the timeout passes). */
+    @Nullable
+    static InputStream open(String url) {
+        if (!ModConfigs.CLIENT.useServerRelay.get()) return null;
+
+        final RelayInputStream s = new RelayInputStream(url);
+        final RelayInputStream prev = BY_URL.put(url, s);
+        if (prev != null) prev.markEnded();
+
+        try {
+            ModPayloads.sendToServer(new RelaySubscribePayload(url, true));
+            if (s.awaitAccepted(ANSWER_TIMEOUT_MS)) {
+                return s;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable ignored) {
+            // Not connected / channel missing -> direct connection.
+        }
+
+        // No (positive) answer in time: the server may still subscribe us later, so cancel it.
+        if (BY_URL.remove(url, s)) {
+            BY_ID.remove(s.streamId, s);
+            s.markEnded();
+            unsubscribe(url);
+        }
+        return null;
+    }
+
+    public static void onStatus(String url, int streamId, boolean ok) {
+        final RelayInputStream s = BY_URL.get(url);
+        if (s == null) {
+            // Late "ok" for a request we gave up on: don't leave the server relaying to nobody.
+            if (ok) unsubscribe(url);
+            return;
+        }
+
+        if (ok) {
+            BY_ID.put(streamId, s);
+            s.answer(true, streamId);
+        } else {
+            // Denied, or the station ended on the server.
+            BY_URL.remove(url, s);
+            BY_ID.remove(s.streamId, s);
+            s.answer(false, streamId);
+        }
+    }
+
+    public static void onTitle(int streamId, String title) {
+        final RelayInputStream s = BY_ID.get(streamId);
+        if (s != null) s.title(title);
+    }
+
+    /** Network thread. */
+    public static void onChunk(int streamId, byte[] data) {
+        final RelayInputStream s = BY_ID.get(streamId);
+        if (s != null) s.offer(data);
+    }
+
+    /** Called when the decoder closes a relayed stream. */
+    static void release(RelayInputStream s) {
+        BY_URL.remove(s.url, s);
+        BY_ID.remove(s.streamId, s);
+        unsubscribe(s.url);
+    }
+
+    private static void unsubscribe(String url) {
+        try {
+            ModPayloads.sendToServer(new RelaySubscribePayload(url, false));
+        } catch (Throwable ignored) {
+        }
+    }
+
+    /** Disconnect: forget everything (the server drops our subscriptions on logout). */
+    public static void reset() {
+        for (RelayInputStream s : BY_URL.values()) s.markEnded();
+        BY_URL.clear();
+        BY_ID.clear();
+    }
+}
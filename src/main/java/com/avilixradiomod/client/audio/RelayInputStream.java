@@ -0,0 +1,133 @@
+package com.avilixradiomod.client.audio;
+
+import com.avilixradiomod.audio.NowPlaying;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Byte stream of a station relayed by the server (see {@link RelayClient}).
+ *
+ * The network thread {@link #offer(byte[]) offers} chunks, the decoder thread reads them.
+ * The queue is bounded and drops the oldest chunk if the decoder falls behind.
+ * The relay strips ICY metadata from the bytes and sends the station title separately.
+ */
+final class RelayInputStream extends InputStream {
+
+    private static final int QUEUE_CHUNKS = 64;
+    private static final long POLL_MS = 250L;
+    /** Same as the direct HTTP read timeout. */
+    private static final long READ_TIMEOUT_MS = 15_000L;
+
+    final String url;
+
+    private final ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+    private final CountDownLatch answered = new CountDownLatch(1);
+
+    private volatile boolean accepted = false;
+    private volatile boolean closed = false;
+    volatile int streamId = 0;
+    private volatile @Nullable NowPlaying nowPlaying;
+
+    private byte[] cur;
+    private int curPos;
+
+    RelayInputStream(String url) {
+        this.url = url;
+    }
+
+    /** Network/client thread: server answered the subscribe request. */
+    void answer(boolean ok, int streamId) {
+        this.streamId = streamId;
+        this.accepted = ok;
+        if (!ok) closed = true;
+        answered.countDown();
+    }
+
+    /** Blocks until the server answered. False if denied or no answer in time. */
+    boolean awaitAccepted(long timeoutMs) throws InterruptedException {
+        return answered.await(timeoutMs, TimeUnit.MILLISECONDS) && accepted;
+    }
+
+    /** Network thread. Drop-oldest when full. */
+    void offer(byte[] chunk) {
+        while (!queue.offer(chunk)) {
+            queue.poll();
+        }
+    }
+
+    /** Client thread: the relayed station's title changed. */
+    void title(String title) {
+        final NowPlaying prev = nowPlaying;
+        if (prev == null || !prev.title().equals(title)) {
+            nowPlaying = new NowPlaying(title, System.currentTimeMillis());
+        }
+    }
+
+    @Nullable
+    NowPlaying nowPlaying() {
+        return nowPlaying;
+    }
+
+    /** Station ended on the server side. */
+    void markEnded() {
+        closed = true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureChunk()) return -1;
+        return cur[curPos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!ensureChunk()) return -1;
+        final int n = Math.min(len, cur.length - curPos);
+        System.arraycopy(cur, curPos, b, off, n);
+        curPos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return cur == null ? 0 : cur.length - curPos;
+    }
+
+    @Override
+    public void close() {
+        if (closed && !accepted) return;
+        closed = true;
+        accepted = false;
+        RelayClient.release(this);
+    }
+
+    private boolean ensureChunk() throws IOException {
+        if (cur != null && curPos < cur.length) return true;
+        cur = null;
+
+        long waited = 0L;
+        while (true) {
+            final byte[] next;
+            try {
+                next = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("relay read interrupted", e);
+            }
+            if (next != null) {
+                cur = next;
+                curPos = 0;
+                return true;
+            }
+            if (closed) return false;
+            waited += POLL_MS;
+            if (waited >= READ_TIMEOUT_MS) throw new IOException("relay read timed out");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.avilixradiomod.client.audio;
+
+import com.avilixradiomod.audio.ResamplerQuality;
+
+/**
+ * Streaming polyphase resampler for interleaved stereo floats (windowed sinc, Blackman window).
+ *
+ * The filter table and the history buffer are built in {@link #configure} and only rebuilt when
+ * the rates or the preset change; {@link #process} itself never allocates as long as input frames
+ * stay within {@link #MAX_INPUT_FRAMES}. Audio thread only.
+ */
+final class Resampler {
+
+    /** Largest input block (frames) handled without growing buffers; an MP3 frame is 1152. */
+    static final int MAX_INPUT_FRAMES = 4096;
+
+    private int inRate = 0;
+    private int outRate = 0;
+    private ResamplerQuality quality = null;
+
+    private int taps;
+    private int half;
+    private int phases;
+    /** (phases + 1) rows of {@code taps} coefficients. */
+    private float[] table = new float[0];
+
+    /** History ({@code taps} frames) followed by new input, interleaved stereo. */
+    private float[] buf = new float[0];
+    private int frames = 0;
+    /** Position of the next output sample in {@link #buf}, in input frames. */
+    private double t;
+    private double step;
+
+    boolean isIdentity() {
+        return inRate == outRate;
+    }
+
+    void configure(int inRate, int outRate, ResamplerQuality quality) {
+        if (inRate == this.inRate && outRate == this.outRate && quality == this.quality) return;
+        this.inRate = inRate;
+        this.outRate = outRate;
+        this.quality = quality;
+        if (inRate == outRate) return;
+
+        taps = quality.taps();
+        half = taps / 2;
+        phases = quality.phases();
+        step = (double) inRate / outRate;
+
+        // Downsampling: move the cutoff below the output Nyquist frequency.
+        final double cutoff = Math.min(1.0, (double) outRate / inRate) * 0.97;
+
+        table = new float[(phases + 1) * taps];
+        for (int p = 0; p <= phases; p++) {
+            final double frac = (double) p / phases;
+            double sum = 0.0;
+            for (int k = 0; k < taps; k++) {
+                final double d = (k - half + 1) - frac;
+                final double x = Math.PI * d * cutoff;
+                final double sinc = x == 0.0 ? 1.0 : Math.sin(x) / x;
+                final double wpos = Math.PI * d / half;
+                final double window = Math.abs(d) >= half ? 0.0
+                        : 0.42 + 0.5 * Math.cos(wpos) + 0.08 * Math.cos(2.0 * wpos);
+                final double c = sinc * window;
+                table[p * taps + k] = (float) c;
+                sum += c;
+            }
+            // Unity gain at DC for every phase.
+            for (int k = 0; k < taps; k++) table[p * taps + k] /= (float) sum;
+        }
+
+        buf = new float[(2 * taps + MAX_INPUT_FRAMES) * 2];
+        frames = taps;
+        t = half - 1;
+    }
+
+    /** Upper bound of output frames for {@code inFrames} input frames. */
+    int maxOutputFrames(int inFrames) {
+        return (int) Math.ceil((inFrames + 1) * ((double) outRate / inRate)) + 1;
+    }
+
+    /**
+     * Resamples {@code inFrames} stereo frames from {@code in} into {@code out}.
+     * Returns the number of frames written.
+     */
+    int process(float[] in, int inFrames, float[] out) {
+        if (buf.length < (frames + inFrames) * 2) {
+            final float[] grown = new float[(frames + inFrames) * 2];
+            System.arraycopy(buf, 0, grown, 0, frames * 2);
+            buf = grown;
+        }
+        System.arraycopy(in, 0, buf, frames * 2, inFrames * 2);
+        frames += inFrames;
+
+        final float[] b = buf;
+        final float[] h = table;
+        final int n = taps;
+        int written = 0;
+
+        while (true) {
+            final int base = (int) t;
+            if (base + half >= frames) break;
+
+            final double fpos = (t - base) * phases;
+            final int p = (int) fpos;
+            final float mix = (float) (fpos - p);
+            final int r0 = p * n;
+            final int r1 = r0 + n;
+
+            float l = 0f;
+            float r = 0f;
+            int j = (base - half + 1) * 2;
+            for (int k = 0; k < n; k++, j += 2) {
+                final float c = h[r0 + k] + (h[r1 + k] - h[r0 + k]) * mix;
+                l += b[j] * c;
+                r += b[j + 1] * c;
+            }
+            out[written * 2] = l;
+            out[written * 2 + 1] = r;
+            written++;
+            t += step;
+        }
+
+        // Keep only what the next call still needs.
+        final int drop = Math.max(0, (int) t - half + 1);
+        if (drop > 0) {
+            System.arraycopy(b, drop * 2, b, 0, (frames - drop) * 2);
+            frames -= drop;
+            t -= drop;
+        }
+        return written;
+    }
+}
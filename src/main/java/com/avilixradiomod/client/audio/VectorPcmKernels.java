@@ -0,0 +1,81 @@
+package com.avilixradiomod.client.audio;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD {@link PcmKernels}. Only loaded by {@link PcmKernels#get()} when {@code jdk.incubator.vector}
+ * is available. Tails shorter than one vector run through the scalar loops.
+ */
+final class VectorPcmKernels implements PcmKernels {
+
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+    /** Same lane count as {@link #F}, for short <-> float conversions. */
+    private static final VectorSpecies<Short> S = VectorSpecies.of(short.class, VectorShape.forBitSize(F.vectorBitSize() / 2));
+    /** Left-channel lanes of interleaved stereo. */
+    private static final VectorMask<Float> EVEN = VectorMask.fromLong(F, 0x5555_5555_5555_5555L);
+
+    @Override
+    public void toFloat(short[] src, float[] dst, int n) {
+        final int bound = S.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += S.length()) {
+            ShortVector.fromArray(S, src, i).convertShape(VectorOperators.S2F, F, 0).reinterpretAsFloats().intoArray(dst, i);
+        }
+        for (; i < n; i++) dst[i] = src[i];
+    }
+
+    @Override
+    public void gainStereo(float[] buf, int n, float gainL, float gainR) {
+        final FloatVector gains = FloatVector.broadcast(F, gainR).blend(gainL, EVEN);
+        final int bound = F.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, buf, i).mul(gains).intoArray(buf, i);
+        }
+        // F.length() is even, so the tail still starts on a left sample.
+        for (; i + 1 < n; i += 2) {
+            buf[i] *= gainL;
+            buf[i + 1] *= gainR;
+        }
+    }
+
+    @Override
+    public void mixAccumulate(float[] dst, float[] src, int n, float gain) {
+        final FloatVector g = FloatVector.broadcast(F, gain);
+        final int bound = F.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, src, i).fma(g, FloatVector.fromArray(F, dst, i)).intoArray(dst, i);
+        }
+        for (; i < n; i++) dst[i] += src[i] * gain;
+    }
+
+    @Override
+    public void toShortSaturating(float[] src, short[] dst, int n) {
+        // Round (+-0.5, the narrowing cast truncates) and clamp with SIMD, then narrow in a plain
+        // loop: a float -> short lane conversion changes the vector shape and is slower than this.
+        final FloatVector half = FloatVector.broadcast(F, 0.5f);
+        final FloatVector minusHalf = FloatVector.broadcast(F, -0.5f);
+        final int bound = F.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += F.length()) {
+            final FloatVector v = FloatVector.fromArray(F, src, i);
+            v.add(half.blend(minusHalf, v.lt(0f))).max(-32768f).min(32767f).intoArray(src, i);
+        }
+        for (; i < n; i++) {
+            final float v = src[i] + (src[i] < 0f ? -0.5f : 0.5f);
+            src[i] = Math.max(-32768f, Math.min(32767f, v));
+        }
+        for (int k = 0; k < n; k++) dst[k] = (short) src[k];
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + F.length() + " x float)";
+    }
+}
@@ -0,0 +1,89 @@
+package com.avilixradiomod.client.render;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.blockentity.SpeakerBlockEntity;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.Sheets;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
+import net.minecraft.client.renderer.blockentity.BlockEntityRendererProvider;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.ModelResourceLocation;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Draws the "on" skin over a speaker while its synced state says it's playing.
+ *
+ * The chunk mesh always holds the "off" model; the playing look comes from here, so a station
+ * starting or stopping changes nothing but block entity data: no block state write on the server,
+ * no neighbour/light updates and no chunk section rebuild on clients.
+ *
+ * The speaker is an opaque cube, so the light passed to this renderer is sampled inside it (always
+ * 0). Each face is lit instead from the block it faces, with the same face shade the chunk mesh
+ * uses, and faces the chunk mesh culls are skipped.
+ */
+public final class SpeakerRenderer implements BlockEntityRenderer<SpeakerBlockEntity> {
+
+    public static final ModelResourceLocation ON_MODEL = ModelResourceLocation.standalone(
+            ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "block/speaker_on"));
+
+    /** Slightly larger than the block so the overlay doesn't z-fight with the chunk mesh. */
+    private static final float OVERLAY_SCALE = 1.002f;
+
+    private final RandomSource random = RandomSource.create();
+
+    public SpeakerRenderer(BlockEntityRendererProvider.Context context) {}
+
+    @Override
+    public void render(SpeakerBlockEntity speaker, float partialTick, PoseStack poseStack,
+                       MultiBufferSource buffers, int packedLight, int packedOverlay) {
+        if (!speaker.isVisuallyPlaying()) return;
+        final Level level = speaker.getLevel();
+        if (level == null) return;
+
+        final Minecraft mc = Minecraft.getInstance();
+        final BakedModel model = mc.getModelManager().getModel(ON_MODEL);
+        final BlockState state = speaker.getBlockState();
+        final BlockPos pos = speaker.getBlockPos();
+        final VertexConsumer consumer = buffers.getBuffer(Sheets.solidBlockSheet());
+
+        poseStack.pushPose();
+        poseStack.translate(0.5f, 0.5f, 0.5f);
+        poseStack.scale(OVERLAY_SCALE, OVERLAY_SCALE, OVERLAY_SCALE);
+        poseStack.translate(-0.5f, -0.5f, -0.5f);
+        // Same texture on every face, so no rotation for FACING is needed.
+        final BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+        for (Direction dir : Direction.values()) {
+            neighbour.setWithOffset(pos, dir);
+            if (!Block.shouldRenderFace(state, level, pos, dir, neighbour)) continue;
+            random.setSeed(state.getSeed(pos));
+            final int light = LevelRenderer.getLightColor(level, neighbour);
+            for (BakedQuad quad : model.getQuads(state, dir, random)) {
+                renderQuad(poseStack, consumer, level, quad, light, packedOverlay);
+            }
+        }
+        // Unculled quads: lit from the block their face points at.
+        random.setSeed(state.getSeed(pos));
+        for (BakedQuad quad : model.getQuads(state, null, random)) {
+            neighbour.setWithOffset(pos, quad.getDirection());
+            renderQuad(poseStack, consumer, level, quad, LevelRenderer.getLightColor(level, neighbour), packedOverlay);
+        }
+        poseStack.popPose();
+    }
+
+    private static void renderQuad(PoseStack poseStack, VertexConsumer consumer, Level level, BakedQuad quad,
+                                   int light, int packedOverlay) {
+        final float shade = level.getShade(quad.getDirection(), quad.isShade());
+        consumer.putBulkData(poseStack.last(), quad, shade, shade, shade, 1f, light, packedOverlay);
+    }
+}
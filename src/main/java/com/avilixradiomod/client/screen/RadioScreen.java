@@ -1,10 +1,15 @@
 package com.avilixradiomod.client.screen;
 
+import com.avilixradiomod.audio.NowPlaying;
 import com.avilixradiomod.blockentity.RadioBlockEntity;
 import com.avilixradiomod.client.UrlHistory;
+import com.avilixradiomod.client.audio.RadioAudioController;
+import com.avilixradiomod.config.ModConfigs;
 import com.avilixradiomod.menu.RadioMenu;
 import com.avilixradiomod.network.ModPayloads;
+import com.avilixradiomod.network.RadioChannelPayload;
 import com.avilixradiomod.network.RadioSettingsPayload;
+import com.avilixradiomod.server.data.ChannelTable;
 
 import com.lowdragmc.lowdraglib2.gui.texture.ColorRectTexture;
 import com.lowdragmc.lowdraglib2.gui.ui.ModularUI;
@@ -22,6 +27,7 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.world.entity.player.Inventory;
 
 import org.appliedenergistics.yoga.*;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,9 +50,13 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
     private static final int COLOR_FIELD_BG = 0xFF5A3A1E;
     private static final int COLOR_SELECTOR_BG = 0xFF4B2F18;
 
+    private static final int NOW_PLAYING_MAX_CHARS = 44;
+    private static final int EQ_STEP_DB = 3;
+
     private TextField urlField;
     private Label statusLabel;
     private Label volumeLabel;
+    private Label nowPlayingLabel;
     private Selector<String> historySelector;
     private Button playStopButton;
 
@@ -54,17 +64,38 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
     private Button clearHistoryButton;
     private Button volMinusButton;
     private Button volPlusButton;
+    private Button eqLowButton;
+    private Button eqMidButton;
+    private Button eqHighButton;
+    private Button channelButton;
+
+    // Settings are previewed at once but sent at most once per settingsSendIntervalMs.
+    @Nullable
+    private RadioSettingsPayload pendingSettings;
+    private long lastSendMs = 0L;
+    /** URL as of the last apply, so history only records real URL changes. */
+    private String lastUrl = "";
+    /**
+     * The radio's URL id hasn't been looked up yet, so {@code menu.getUrl()} is "". Settings are held
+     * until it resolves: sending them now would overwrite the station with an empty URL.
+     */
+    private boolean urlPending = false;
 
     private static final class UiRefs {
         TextField urlField;
         Label statusLabel;
         Label volumeLabel;
+        Label nowPlayingLabel;
         Selector<String> historySelector;
         Button playStopButton;
         Button saveButton;
         Button clearHistoryButton;
         Button volMinusButton;
         Button volPlusButton;
+        Button eqLowButton;
+        Button eqMidButton;
+        Button eqHighButton;
+        Button channelButton;
     }
 
     private record Build(ModularUI ui, UiRefs refs) {}
@@ -86,12 +117,17 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
         this.urlField = r.urlField;
         this.statusLabel = r.statusLabel;
         this.volumeLabel = r.volumeLabel;
+        this.nowPlayingLabel = r.nowPlayingLabel;
         this.historySelector = r.historySelector;
         this.playStopButton = r.playStopButton;
         this.saveButton = r.saveButton;
         this.clearHistoryButton = r.clearHistoryButton;
         this.volMinusButton = r.volMinusButton;
         this.volPlusButton = r.volPlusButton;
+        this.eqLowButton = r.eqLowButton;
+        this.eqMidButton = r.eqMidButton;
+        this.eqHighButton = r.eqHighButton;
+        this.channelButton = r.channelButton;
 
         this.playStopButton.setOnClick(e -> {
             boolean nowPlaying = !this.menu.isPlaying();
@@ -102,6 +138,17 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
         this.volMinusButton.setOnClick(e -> setVolume(this.menu.getVolume() - 5));
         this.volPlusButton.setOnClick(e -> setVolume(this.menu.getVolume() + 5));
 
+        // Each click raises the band by one step and wraps around to the minimum.
+        this.eqLowButton.setOnClick(e -> apply(this.menu.isPlaying(), this.menu.getVolume(),
+                nextEq(this.menu.getEqLow()), this.menu.getEqMid(), this.menu.getEqHigh()));
+        this.eqMidButton.setOnClick(e -> apply(this.menu.isPlaying(), this.menu.getVolume(),
+                this.menu.getEqLow(), nextEq(this.menu.getEqMid()), this.menu.getEqHigh()));
+        this.eqHighButton.setOnClick(e -> apply(this.menu.isPlaying(), this.menu.getVolume(),
+                this.menu.getEqLow(), this.menu.getEqMid(), nextEq(this.menu.getEqHigh())));
+
+        // Cycles through the channels and back to "none".
+        this.channelButton.setOnClick(e -> setChannel((this.menu.getChannel() + 1) % (ChannelTable.MAX_CHANNEL + 1)));
+
         this.clearHistoryButton.setOnClick(e -> {
             UrlHistory.clear();
             refreshHistory();
@@ -292,7 +339,77 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
         volControls.addChildren(refs.volMinusButton, refs.volumeLabel, refs.volPlusButton);
         volumeRow.addChildren(volTitle, volControls);
 
-        rightColumn.addChildren(dialSpacer, urlLbl, refs.urlField, controls, volumeRow);
+        UIElement eqRow = new UIElement()
+                .layout(layout -> {
+                    layout.setWidthPercent(100);
+                    layout.setFlexDirection(YogaFlexDirection.ROW);
+                    layout.setAlignItems(YogaAlign.CENTER);
+                    layout.setPadding(YogaEdge.HORIZONTAL, 20);
+                    layout.setJustifyContent(YogaJustify.SPACE_BETWEEN);
+                });
+
+        Label eqTitle = new Label();
+        eqTitle.setText(Component.literal("ТЕМБР"));
+        eqTitle.textStyle(s -> s
+                .fontSize(9)
+                .textColor(COLOR_TEXT_GOLD)
+                .adaptiveWidth(true));
+
+        UIElement eqControls = new UIElement()
+                .layout(layout -> {
+                    layout.setFlexDirection(YogaFlexDirection.ROW);
+                    layout.setAlignItems(YogaAlign.CENTER);
+                    layout.setGap(YogaGutter.COLUMN, 4);
+                });
+
+        refs.eqLowButton = new Button();
+        refs.eqLowButton.layout(layout -> layout.setWidth(34));
+        applyRadiolaSmallButtonStyle(refs.eqLowButton);
+
+        refs.eqMidButton = new Button();
+        refs.eqMidButton.layout(layout -> layout.setWidth(34));
+        applyRadiolaSmallButtonStyle(refs.eqMidButton);
+
+        refs.eqHighButton = new Button();
+        refs.eqHighButton.layout(layout -> layout.setWidth(34));
+        applyRadiolaSmallButtonStyle(refs.eqHighButton);
+
+        eqControls.addChildren(refs.eqLowButton, refs.eqMidButton, refs.eqHighButton);
+        eqRow.addChildren(eqTitle, eqControls);
+
+        UIElement channelRow = new UIElement()
+                .layout(layout -> {
+                    layout.setWidthPercent(100);
+                    layout.setFlexDirection(YogaFlexDirection.ROW);
+                    layout.setAlignItems(YogaAlign.CENTER);
+                    layout.setPadding(YogaEdge.HORIZONTAL, 20);
+                    layout.setJustifyContent(YogaJustify.SPACE_BETWEEN);
+                });
+
+        Label channelTitle = new Label();
+        channelTitle.setText(Component.literal("КАНАЛ"));
+        channelTitle.textStyle(s -> s
+                .fontSize(9)
+                .textColor(COLOR_TEXT_GOLD)
+                .adaptiveWidth(true));
+
+        refs.channelButton = new Button();
+        refs.channelButton.layout(layout -> layout.setWidth(34));
+        applyRadiolaSmallButtonStyle(refs.channelButton);
+
+        channelRow.addChildren(channelTitle, refs.channelButton);
+
+        refs.nowPlayingLabel = new Label();
+        refs.nowPlayingLabel.setText(Component.empty());
+        refs.nowPlayingLabel.textStyle(s -> s
+                .fontSize(8)
+                .textColor(COLOR_TEXT_STATUS));
+        refs.nowPlayingLabel.layout(layout -> {
+            layout.setWidthPercent(100);
+            layout.setMargin(YogaEdge.LEFT, 3);
+        });
+
+        rightColumn.addChildren(dialSpacer, urlLbl, refs.urlField, controls, volumeRow, eqRow, channelRow, refs.nowPlayingLabel);
 
         body.addChildren(leftColumn, rightColumn);
         root.addChild(body);
@@ -345,9 +462,13 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
     public void init() {
         super.init();
 
-        if (urlField != null) {
+        RadioBlockEntity radio = menu.getRadio();
+        urlPending = radio != null && !radio.isUrlResolved();
+        // While pending the field stays empty; it's filled in once the URL arrives.
+        if (urlField != null && !urlPending) {
             urlField.setText(initialUrl());
         }
+        lastUrl = menu.getUrl();
 
         refreshHistory();
         syncLabels();
@@ -361,9 +482,20 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
     @Override
     protected void containerTick() {
         super.containerTick();
+        if (urlPending) checkUrlResolved();
+        sendSettings(false);
         syncLabels();
     }
 
+    @Override
+    public void removed() {
+        // Closed before the URL arrived: only a URL the player typed is safe to send.
+        if (urlPending && pendingSettings != null && pendingSettings.url().isEmpty()) pendingSettings = null;
+        urlPending = false;
+        sendSettings(true);
+        super.removed();
+    }
+
     private void syncLabels() {
         if (statusLabel != null) {
             statusLabel.setText(menu.isPlaying()
@@ -384,6 +516,30 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
         if (volumeLabel != null) {
             volumeLabel.setText(Component.literal(menu.getVolume() + "%"));
         }
+
+        if (eqLowButton != null) {
+            eqLowButton.setText(Component.literal("Н" + formatDb(menu.getEqLow())));
+            eqMidButton.setText(Component.literal("С" + formatDb(menu.getEqMid())));
+            eqHighButton.setText(Component.literal("В" + formatDb(menu.getEqHigh())));
+        }
+
+        if (channelButton != null) {
+            channelButton.setText(Component.literal(menu.getChannel() == 0 ? "—" : String.valueOf(menu.getChannel())));
+        }
+
+        if (nowPlayingLabel != null) {
+            // Title comes for free from the ICY metadata of the stream we already decode.
+            NowPlaying np = menu.isPlaying() ? RadioAudioController.getNowPlaying(menu.getUrl()) : null;
+            if (np == null || np.title().isEmpty()) {
+                nowPlayingLabel.setText(Component.empty());
+            } else {
+                String title = np.title();
+                if (title.length() > NOW_PLAYING_MAX_CHARS) {
+                    title = title.substring(0, NOW_PLAYING_MAX_CHARS - 1) + "…";
+                }
+                nowPlayingLabel.setText(Component.literal("♪ " + title));
+            }
+        }
     }
 
     private void setVolume(int newVolume) {
@@ -391,22 +547,75 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
         apply(menu.isPlaying(), newVolume);
     }
 
+    private void setChannel(int channel) {
+        RadioBlockEntity radio = menu.getRadio();
+        if (radio != null) {
+            radio.setChannel(channel);
+        }
+        ModPayloads.sendToServer(new RadioChannelPayload(menu.getPos(), channel));
+    }
+
+    private static int nextEq(int db) {
+        int next = db + EQ_STEP_DB;
+        return next > RadioBlockEntity.EQ_MAX_DB ? RadioBlockEntity.EQ_MIN_DB : next;
+    }
+
+    private static String formatDb(int db) {
+        return db > 0 ? "+" + db : db == 0 ? " 0" : String.valueOf(db);
+    }
+
     private void apply(boolean playing, int volume) {
+        apply(playing, volume, menu.getEqLow(), menu.getEqMid(), menu.getEqHigh());
+    }
+
+    private void apply(boolean playing, int volume, int eqLow, int eqMid, int eqHigh) {
         String url = (urlField != null) ? urlField.getText() : menu.getUrl();
         if (url == null) url = "";
         url = url.trim();
 
-        if (!url.isEmpty()) {
+        // History is a config write: only touch it when the URL really changed.
+        if (!url.isEmpty() && !url.equals(lastUrl)) {
             UrlHistory.remember(url);
             refreshHistory();
         }
+        lastUrl = url;
 
         RadioBlockEntity radio = menu.getRadio();
         if (radio != null) {
-            radio.setClientSidePreview(url, playing, volume);
+            radio.setClientSidePreview(urlPending ? null : url, playing, volume, eqLow, eqMid, eqHigh);
+        }
+
+        pendingSettings = new RadioSettingsPayload(menu.getPos(), url, playing, volume, eqLow, eqMid, eqHigh);
+        sendSettings(false);
+    }
+
+    /** Sends the latest pending settings if the interval has passed (or always, when {@code force}). */
+    private void sendSettings(boolean force) {
+        if (pendingSettings == null || urlPending) return;
+        final long now = System.currentTimeMillis();
+        if (!force && now - lastSendMs < ModConfigs.CLIENT.settingsSendIntervalMs.get()) return;
+
+        ModPayloads.sendToServer(pendingSettings);
+        pendingSettings = null;
+        lastSendMs = now;
+    }
+
+    /** Fills in the URL once it arrived and re-applies settings made meanwhile with it. */
+    private void checkUrlResolved() {
+        RadioBlockEntity radio = menu.getRadio();
+        if (radio != null && !radio.isUrlResolved()) return;
+        urlPending = false;
+
+        // An empty field was never touched; a URL typed meanwhile wins.
+        if (urlField != null && urlField.getText().isBlank()) {
+            urlField.setText(initialUrl());
         }
+        lastUrl = menu.getUrl();
 
-        ModPayloads.sendToServer(new RadioSettingsPayload(menu.getPos(), url, playing, volume));
+        RadioSettingsPayload held = pendingSettings;
+        if (held != null) {
+            apply(held.playing(), held.volume(), held.eqLow(), held.eqMid(), held.eqHigh());
+        }
     }
 
     private void refreshHistory() {
@@ -462,7 +671,7 @@ public final class RadioScreen extends ModularUIContainerScreen<RadioMenu> {
         fillFrame(gfx, dialX, dialY, dialW, dialH, 0xFFEEE0B5, 0xFFD6B673, 0xFF9A7740);
         drawScale(gfx, dialX + 8, dialY + 8, dialW - 16, dialH - 16);
 
-        fillFrame(gfx, x + 144, y + 96, 198, 90, 0xFF432A16, 0xFFA67C45, 0xFF62411F);
+        fillFrame(gfx, x + 144, y + 96, 198, 128, 0xFF432A16, 0xFFA67C45, 0xFF62411F);
         fillFrame(gfx, x + 16, y + 160, 116, 46, 0xFF432A16, 0xFFA67C45, 0xFF62411F);
 
         gfx.drawString(font, "ПАМЯТЬ", x + 22, y + 151, COLOR_TEXT_GOLD, false);
@@ -1,5 +1,6 @@
 package com.avilixradiomod.config;
 
+import com.avilixradiomod.audio.ResamplerQuality;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.neoforge.common.ModConfigSpec;
@@ -10,6 +11,9 @@ import java.util.List;
 public final class ModConfigs {
     private ModConfigs() {}
 
+    /** Longest URL the mod stores or sends; also the string bound of every network codec that carries a URL. */
+    public static final int MAX_URL_LENGTH = 8192;
+
     // ---------------- COMMON ----------------
     public static final ModConfigSpec COMMON_SPEC;
     public static final Common COMMON;
@@ -39,11 +43,34 @@ public final class ModConfigs {
         public final ModConfigSpec.IntValue maxHearDistance;
         public final ModConfigSpec.DoubleValue smoothing;
         public final ModConfigSpec.DoubleValue stopThreshold;
+        public final ModConfigSpec.IntValue gainRampMs;
+        public final ModConfigSpec.BooleanValue occlusionEnabled;
+        public final ModConfigSpec.DoubleValue occlusionPerBlock;
+        public final ModConfigSpec.IntValue holdTimeoutSeconds;
+        public final ModConfigSpec.IntValue reattachGraceSeconds;
+        public final ModConfigSpec.DoubleValue monoBelowVolume;
+        public final ModConfigSpec.DoubleValue halfRateBelowVolume;
+        public final ModConfigSpec.IntValue preconnectDistance;
+        public final ModConfigSpec.IntValue preconnectLookaheadTicks;
+        public final ModConfigSpec.IntValue maxPreconnects;
+        public final ModConfigSpec.IntValue maxHeldStreams;
+        public final ModConfigSpec.BooleanValue interestSyncEnabled;
         public final ModConfigSpec.IntValue defaultVolume;
 
         public final ModConfigSpec.ConfigValue<String> defaultStreamUrl;
 
         public final ModConfigSpec.IntValue maxUrlLength;
+        public final ModConfigSpec.DoubleValue settingsPerSecond;
+        public final ModConfigSpec.IntValue settingsBurst;
+
+        // --- Radio world state ---
+        public final ModConfigSpec.IntValue sweepChecksPerTick;
+
+        // --- Stream relay ---
+        public final ModConfigSpec.BooleanValue relayEnabled;
+        public final ModConfigSpec.IntValue relayMaxStations;
+        public final ModConfigSpec.IntValue relayClientQueueChunks;
+        public final ModConfigSpec.IntValue relayBytesPerTick;
 
         // --- Database (MySQL) ---
         public final ModConfigSpec.BooleanValue dbEnabled;
@@ -70,6 +97,42 @@ public final class ModConfigs {
             stopThreshold = b.comment("If target volume is 0 and smoothed volume drops below this -> stop decoding.")
                     .defineInRange("stopThreshold", 0.50, 0.0, 5.0);
 
+            gainRampMs = b.comment("Time constant (ms) of the per-sample gain ramp in the audio thread. Volume and pan changes glide over roughly this time instead of stepping once per tick. 0 = no ramp.")
+                    .defineInRange("gainRampMs", 120, 0, 2000);
+
+            occlusionEnabled = b.comment("Solid blocks between the listener and a speaker/radio make it quieter and muffled (low-pass).")
+                    .define("occlusionEnabled", true);
+
+            occlusionPerBlock = b.comment("Fraction of volume lost per occluding block (0..1).")
+                    .defineInRange("occlusionPerBlock", 0.35, 0.0, 1.0);
+
+            holdTimeoutSeconds = b.comment("After a stream becomes inaudible, keep its connection open (no decoding, no output) for this many seconds so walking back in is instant. 0 = stop immediately.")
+                    .defineInRange("holdTimeoutSeconds", 30, 0, 600);
+
+            reattachGraceSeconds = b.comment("While there is no level/player (portal, death screen, world reload) streams are muted and held for this many seconds, so the same stations resume without reconnecting. 0 = stop immediately.")
+                    .defineInRange("reattachGraceSeconds", 30, 0, 600);
+
+            monoBelowVolume = b.comment("Decode in mono when a stream's target volume (0..100) is below this. 0 = always stereo.")
+                    .defineInRange("monoBelowVolume", 25.0, 0.0, 100.0);
+
+            halfRateBelowVolume = b.comment("Decode in mono at half the sample rate when target volume (0..100) is below this (only for stations that get resampled anyway). 0 = disabled.")
+                    .defineInRange("halfRateBelowVolume", 8.0, 0.0, 100.0);
+
+            preconnectDistance = b.comment("Extra ring (in blocks) beyond maxHearDistance where streams are connected and buffered (held, not decoded) before they become audible. 0 = disabled.")
+                    .defineInRange("preconnectDistance", 12, 0, 64);
+
+            preconnectLookaheadTicks = b.comment("Also pre-connect when the player's movement would bring them into hearing range within this many ticks. 0 = no prediction.")
+                    .defineInRange("preconnectLookaheadTicks", 40, 0, 200);
+
+            maxPreconnects = b.comment("Max number of streams pre-connected at once (see preconnectDistance). Nearest to audible wins. 0 = no pre-connecting.")
+                    .defineInRange("maxPreconnects", 2, 0, 16);
+
+            maxHeldStreams = b.comment("Max number of streams held open after fading out (see holdTimeoutSeconds). Most recently held wins. 0 = close streams as soon as they are inaudible.")
+                    .defineInRange("maxHeldStreams", 2, 0, 16);
+
+            interestSyncEnabled = b.comment("Server tracks which emitters each player can hear and sends only changes to that set; clients then skip scanning loaded chunks.")
+                    .define("interestSync", true);
+
             defaultVolume = b.comment("Default volume for new radios (0..100).")
                     .defineInRange("defaultVolume", 50, 0, 100);
 
@@ -79,7 +142,32 @@ public final class ModConfigs {
 
             b.push("validation");
             maxUrlLength = b.comment("Max URL length allowed in GUI/network.")
-                    .defineInRange("maxUrlLength", 8192, 128, 16384);
+                    .defineInRange("maxUrlLength", MAX_URL_LENGTH, 128, MAX_URL_LENGTH);
+
+            settingsPerSecond = b.comment("Radio settings and channel packets applied per second per player. Extra packets are merged per radio and applied later.")
+                    .defineInRange("settingsPerSecond", 4.0, 0.5, 100.0);
+
+            settingsBurst = b.comment("Radio settings and channel packets a player may send back to back before the rate limit applies.")
+                    .defineInRange("settingsBurst", 8, 1, 64);
+            b.pop();
+
+            b.push("worldState");
+            sweepChecksPerTick = b.comment("Stored radio entries verified per server tick as chunks load; entries whose radio block is gone are removed. 0 = off.")
+                    .defineInRange("sweepChecksPerTick", 64, 0, 4096);
+            b.pop();
+
+            b.push("relay");
+            relayEnabled = b.comment("Server-side relay: the server fetches each playing station once and forwards the MP3 data to clients that ask for it.")
+                    .define("enabled", false);
+
+            relayMaxStations = b.comment("Max number of stations relayed at the same time.")
+                    .defineInRange("maxStations", 16, 1, 256);
+
+            relayClientQueueChunks = b.comment("Per-client queue length in 4 KiB chunks. When a client falls behind, the oldest chunks are dropped.")
+                    .defineInRange("clientQueueChunks", 32, 4, 1024);
+
+            relayBytesPerTick = b.comment("Max relayed bytes sent to one client per station per server tick.")
+                    .defineInRange("bytesPerTick", 16384, 1024, 262144);
             b.pop();
 
             b.push("database");
@@ -116,8 +204,12 @@ public final class ModConfigs {
     // ======= CLIENT SETTINGS =======
     public static final class Client {
         public final ModConfigSpec.DoubleValue globalVolume;
+        public final ModConfigSpec.BooleanValue useServerRelay;
+        public final ModConfigSpec.IntValue outputSampleRate;
+        public final ModConfigSpec.EnumValue<ResamplerQuality> resamplerQuality;
         public final ModConfigSpec.ConfigValue<String> defaultUrl;
         public final ModConfigSpec.IntValue historyLimit;
+        public final ModConfigSpec.IntValue settingsSendIntervalMs;
         public final ModConfigSpec.ConfigValue<List<? extends String>> urlHistory;
 
 
@@ -127,6 +219,15 @@ public final class ModConfigs {
             globalVolume = b.comment("Global (master) volume for ALL Avilix Radio blocks. 0..1")
                     .defineInRange("globalVolume", 1.0, 0.0, 1.0);
 
+            useServerRelay = b.comment("Ask the server to relay streams (if it has the relay enabled) instead of connecting to each station directly.")
+                    .define("useServerRelay", true);
+
+            outputSampleRate = b.comment("Every stream is resampled to this rate (Hz) before output, so all lines use one format. 0 = open the line at each stream's own rate.")
+                    .defineInRange("outputSampleRate", 48000, 0, 192000);
+
+            resamplerQuality = b.comment("Resampler preset: FAST, MEDIUM or HIGH (more CPU).")
+                    .defineEnum("resamplerQuality", ResamplerQuality.MEDIUM);
+
             b.pop();
 
             b.push("radio");
@@ -137,6 +238,9 @@ public final class ModConfigs {
             historyLimit = b.comment("How many recent URLs to remember.")
                     .defineInRange("historyLimit", 12, 0, 64);
 
+            settingsSendIntervalMs = b.comment("Radio GUI changes are previewed at once but sent to the server at most once per this many ms (the last one is always sent on close).")
+                    .defineInRange("settingsSendIntervalMs", 250, 0, 2000);
+
             urlHistory = b.comment("Recent URLs (client-side only).")
                     .defineListAllowEmpty("urlHistory", List.of(), o -> o instanceof String s && !s.isBlank());
 
@@ -21,8 +21,8 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * Remote item:
- *  - Right click a Radio to store its position
- *  - Right click a Speaker to link it to the stored radio
+ *  - Right click a Radio to store its position (and its frequency channel, if it has one)
+ *  - Right click a Speaker to link it to the stored radio, or tune it to the stored channel
  *  - Shift-right click a Speaker to clear speaker link
  *  - Shift-right click in the air to clear stored link in the remote
  */
@@ -32,6 +32,7 @@ public final class RemoteItem extends Item {
     private static final String TAG_Y = "Y";
     private static final String TAG_Z = "Z";
     private static final String TAG_DIM = "Dim";
+    private static final String TAG_CHANNEL = "Channel";
 
     public RemoteItem(Properties properties) {
         super(properties);
@@ -47,9 +48,9 @@ public final class RemoteItem extends Item {
         final ItemStack stack = ctx.getItemInHand();
         final BlockEntity be = level.getBlockEntity(pos);
 
-        if (be instanceof RadioBlockEntity) {
+        if (be instanceof RadioBlockEntity radio) {
             if (!level.isClientSide) {
-                storeLink(stack, pos, level.dimension().location());
+                storeLink(stack, pos, level.dimension().location(), radio.getChannel());
                 player.displayClientMessage(Component.translatable("message.avilixradiomod.remote_saved"), true);
             }
             return InteractionResult.sidedSuccess(level.isClientSide);
@@ -64,6 +65,9 @@ public final class RemoteItem extends Item {
                     final Link link = readLink(stack);
                     if (link == null) {
                         player.displayClientMessage(Component.translatable("message.avilixradiomod.remote_empty"), true);
+                    } else if (link.channel != 0) {
+                        speaker.setChannel(link.channel);
+                        player.displayClientMessage(Component.translatable("message.avilixradiomod.speaker_tuned", link.channel), true);
                     } else {
                         speaker.setRadioLink(link.pos, link.dim);
                         player.displayClientMessage(Component.translatable("message.avilixradiomod.speaker_linked"), true);
@@ -100,7 +104,7 @@ public final class RemoteItem extends Item {
         stack.set(DataComponents.CUSTOM_DATA, CustomData.of(root));
     }
 
-    private static void storeLink(ItemStack stack, BlockPos pos, ResourceLocation dim) {
+    private static void storeLink(ItemStack stack, BlockPos pos, ResourceLocation dim, int channel) {
         CompoundTag root = getRoot(stack);
 
         CompoundTag t = new CompoundTag();
@@ -108,6 +112,7 @@ public final class RemoteItem extends Item {
         t.putInt(TAG_Y, pos.getY());
         t.putInt(TAG_Z, pos.getZ());
         t.putString(TAG_DIM, dim.toString());
+        if (channel != 0) t.putInt(TAG_CHANNEL, channel);
 
         root.put(TAG_REMOTE, t);
         setRoot(stack, root);
@@ -133,8 +138,8 @@ public final class RemoteItem extends Item {
         ResourceLocation dim = dimStr.isEmpty() ? null : ResourceLocation.tryParse(dimStr);
         if (dim == null) return null;
 
-        return new Link(pos, dim);
+        return new Link(pos, dim, t.getInt(TAG_CHANNEL));
     }
 
-    private record Link(BlockPos pos, ResourceLocation dim) {}
+    private record Link(BlockPos pos, ResourceLocation dim, int channel) {}
 }
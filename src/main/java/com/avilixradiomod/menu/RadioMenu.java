@@ -65,6 +65,22 @@ public class RadioMenu extends AbstractContainerMenu {
         return radio != null ? radio.getVolume() : 100;
     }
 
+    public int getEqLow() {
+        return radio != null ? radio.getEqLow() : 0;
+    }
+
+    public int getEqMid() {
+        return radio != null ? radio.getEqMid() : 0;
+    }
+
+    public int getEqHigh() {
+        return radio != null ? radio.getEqHigh() : 0;
+    }
+
+    public int getChannel() {
+        return radio != null ? radio.getChannel() : 0;
+    }
+
     @Override
     public ItemStack quickMoveStack(Player player, int index) {
         // В этом меню нет слотов -> шифт-клик ничего не делает
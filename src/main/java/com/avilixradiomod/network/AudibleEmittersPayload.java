@@ -0,0 +1,67 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server -> client: change to the set of emitters the player can hear.
+ * {@code reset} = full snapshot (first contact / new dimension), otherwise a diff. A snapshot
+ * bigger than {@link #MAX_ENTRIES} is split: the first packet has {@code reset}, the rest are diffs.
+ * URLs are sent as URL table ids, resolved on the client like block entity URLs.
+ */
+public record AudibleEmittersPayload(boolean reset, List<Emitter> upserts, long[] removed) implements CustomPacketPayload {
+
+    /** Upserts (and removals) per packet: ~20 bytes each, so a full packet stays far below the 1 MiB limit. */
+    public static final int MAX_ENTRIES = 4096;
+
+    public record Emitter(long pos, int urlId, boolean playing, int volume, int priority) {}
+
+    public static final Type<AudibleEmittersPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "audible_emitters"));
+
+    public static final StreamCodec<FriendlyByteBuf, AudibleEmittersPayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public AudibleEmittersPayload decode(FriendlyByteBuf buf) {
+            boolean reset = buf.readBoolean();
+            int n = buf.readVarInt();
+            if (n < 0 || n > MAX_ENTRIES) throw new DecoderException("Too many emitters: " + n);
+            List<Emitter> upserts = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                long pos = buf.readLong();
+                int urlId = buf.readVarInt();
+                boolean playing = buf.readBoolean();
+                int volume = buf.readVarInt();
+                int priority = buf.readByte();
+                upserts.add(new Emitter(pos, urlId, playing, volume, priority));
+            }
+            long[] removed = buf.readLongArray(null, MAX_ENTRIES);
+            return new AudibleEmittersPayload(reset, upserts, removed);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, AudibleEmittersPayload payload) {
+            buf.writeBoolean(payload.reset());
+            buf.writeVarInt(payload.upserts().size());
+            for (Emitter e : payload.upserts()) {
+                buf.writeLong(e.pos());
+                buf.writeVarInt(e.urlId());
+                buf.writeBoolean(e.playing());
+                buf.writeVarInt(e.volume());
+                buf.writeByte(e.priority());
+            }
+            buf.writeLongArray(payload.removed());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
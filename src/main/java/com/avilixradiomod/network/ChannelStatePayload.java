@@ -0,0 +1,42 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.config.ModConfigs;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Server -> client: new state of one frequency channel. Sent to every player on change (and the
+ * whole table on join); speakers tuned to the channel read it from the client copy.
+ */
+public record ChannelStatePayload(int channel, String url, boolean playing, int volume) implements CustomPacketPayload {
+
+    public static final Type<ChannelStatePayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "channel_state"));
+
+    public static final StreamCodec<FriendlyByteBuf, ChannelStatePayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public ChannelStatePayload decode(FriendlyByteBuf buf) {
+            int channel = buf.readVarInt();
+            String url = buf.readUtf(ModConfigs.MAX_URL_LENGTH);
+            boolean playing = buf.readBoolean();
+            int volume = buf.readVarInt();
+            return new ChannelStatePayload(channel, url, playing, volume);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, ChannelStatePayload payload) {
+            buf.writeVarInt(payload.channel());
+            buf.writeUtf(payload.url() == null ? "" : payload.url(), ModConfigs.MAX_URL_LENGTH);
+            buf.writeBoolean(payload.playing());
+            buf.writeVarInt(payload.volume());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
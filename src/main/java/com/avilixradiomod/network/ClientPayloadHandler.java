@@ -0,0 +1,39 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.client.ClientChannels;
+import com.avilixradiomod.client.ClientUrlTable;
+import com.avilixradiomod.client.audio.AudibleEmitters;
+import com.avilixradiomod.client.audio.RelayClient;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Handlers for server -> client payloads. Only ever invoked on the client.
+ */
+public final class ClientPayloadHandler {
+    private ClientPayloadHandler() {}
+
+    public static void handleAudibleEmitters(final AudibleEmittersPayload payload, final IPayloadContext context) {
+        AudibleEmitters.apply(payload);
+    }
+
+    public static void handleRelayStatus(final RelayStatusPayload payload, final IPayloadContext context) {
+        RelayClient.onStatus(payload.url(), payload.streamId(), payload.ok());
+    }
+
+    public static void handleRelayTitle(final RelayTitlePayload payload, final IPayloadContext context) {
+        RelayClient.onTitle(payload.streamId(), payload.title());
+    }
+
+    public static void handleUrlNames(final UrlNamesPayload payload, final IPayloadContext context) {
+        ClientUrlTable.apply(payload.ids(), payload.urls());
+    }
+
+    public static void handleChannelState(final ChannelStatePayload payload, final IPayloadContext context) {
+        ClientChannels.apply(payload.channel(), payload.url(), payload.playing(), payload.volume());
+    }
+
+    /** Runs on the network thread. */
+    public static void handleRelayChunk(final RelayChunkPayload payload, final IPayloadContext context) {
+        RelayClient.onChunk(payload.streamId(), payload.data());
+    }
+}
@@ -4,6 +4,7 @@ import com.avilixradiomod.AvilixRadioMod;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.neoforged.neoforge.network.PacketDistributor;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.registration.HandlerThread;
 
 public final class ModPayloads {
     private ModPayloads() {}
@@ -22,6 +23,56 @@ public final class ModPayloads {
                         RadioSettingsPayload.TYPE,
                         RadioSettingsPayload.STREAM_CODEC,
                         ServerPayloadHandler::handleRadioSettings
+                )
+                .playToServer(
+                        RadioChannelPayload.TYPE,
+                        RadioChannelPayload.STREAM_CODEC,
+                        ServerPayloadHandler::handleRadioChannel
+                )
+                .playToServer(
+                        RelaySubscribePayload.TYPE,
+                        RelaySubscribePayload.STREAM_CODEC,
+                        ServerPayloadHandler::handleRelaySubscribe
+                )
+                .playToServer(
+                        UrlLookupPayload.TYPE,
+                        UrlLookupPayload.STREAM_CODEC,
+                        ServerPayloadHandler::handleUrlLookup
+                )
+                .playToClient(
+                        AudibleEmittersPayload.TYPE,
+                        AudibleEmittersPayload.STREAM_CODEC,
+                        ClientPayloadHandler::handleAudibleEmitters
+                )
+                .playToClient(
+                        RelayStatusPayload.TYPE,
+                        RelayStatusPayload.STREAM_CODEC,
+                        ClientPayloadHandler::handleRelayStatus
+                )
+                .playToClient(
+                        RelayTitlePayload.TYPE,
+                        RelayTitlePayload.STREAM_CODEC,
+                        ClientPayloadHandler::handleRelayTitle
+                )
+                .playToClient(
+                        UrlNamesPayload.TYPE,
+                        UrlNamesPayload.STREAM_CODEC,
+                        ClientPayloadHandler::handleUrlNames
+                )
+                .playToClient(
+                        ChannelStatePayload.TYPE,
+                        ChannelStatePayload.STREAM_CODEC,
+                        ClientPayloadHandler::handleChannelState
+                );
+
+        // Relay audio goes straight from the network thread to the decoder queue,
+        // no need to hop through the client main thread.
+        event.registrar(AvilixRadioMod.MOD_ID)
+                .executesOn(HandlerThread.NETWORK)
+                .playToClient(
+                        RelayChunkPayload.TYPE,
+                        RelayChunkPayload.STREAM_CODEC,
+                        ClientPayloadHandler::handleRelayChunk
                 );
     }
 }
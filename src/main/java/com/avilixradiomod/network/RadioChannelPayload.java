@@ -0,0 +1,35 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/** Client -> server: tune a radio to a frequency channel (0 = none). */
+public record RadioChannelPayload(BlockPos pos, int channel) implements CustomPacketPayload {
+
+    public static final Type<RadioChannelPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "radio_channel"));
+
+    public static final StreamCodec<FriendlyByteBuf, RadioChannelPayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public RadioChannelPayload decode(FriendlyByteBuf buf) {
+            BlockPos pos = buf.readBlockPos();
+            int channel = buf.readVarInt();
+            return new RadioChannelPayload(pos, channel);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, RadioChannelPayload payload) {
+            buf.writeBlockPos(payload.pos());
+            buf.writeVarInt(payload.channel());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
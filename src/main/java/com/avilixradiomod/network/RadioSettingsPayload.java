@@ -1,13 +1,15 @@
 package com.avilixradiomod.network;
 
 import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.config.ModConfigs;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.resources.ResourceLocation;
 
-public record RadioSettingsPayload(BlockPos pos, String url, boolean playing, int volume) implements CustomPacketPayload {
+public record RadioSettingsPayload(BlockPos pos, String url, boolean playing, int volume,
+                                   int eqLow, int eqMid, int eqHigh) implements CustomPacketPayload {
 
     public static final Type<RadioSettingsPayload> TYPE =
             new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "radio_settings"));
@@ -16,18 +18,24 @@ public record RadioSettingsPayload(BlockPos pos, String url, boolean playing, in
         @Override
         public RadioSettingsPayload decode(FriendlyByteBuf buf) {
             BlockPos pos = buf.readBlockPos();
-            String url = buf.readUtf(8192);
+            String url = buf.readUtf(ModConfigs.MAX_URL_LENGTH);
             boolean playing = buf.readBoolean();
             int volume = buf.readVarInt();
-            return new RadioSettingsPayload(pos, url, playing, volume);
+            int eqLow = buf.readByte();
+            int eqMid = buf.readByte();
+            int eqHigh = buf.readByte();
+            return new RadioSettingsPayload(pos, url, playing, volume, eqLow, eqMid, eqHigh);
         }
 
         @Override
         public void encode(FriendlyByteBuf buf, RadioSettingsPayload payload) {
             buf.writeBlockPos(payload.pos());
-            buf.writeUtf(payload.url() == null ? "" : payload.url(), 8192);
+            buf.writeUtf(payload.url() == null ? "" : payload.url(), ModConfigs.MAX_URL_LENGTH);
             buf.writeBoolean(payload.playing());
             buf.writeVarInt(payload.volume());
+            buf.writeByte(payload.eqLow());
+            buf.writeByte(payload.eqMid());
+            buf.writeByte(payload.eqHigh());
         }
     };
 
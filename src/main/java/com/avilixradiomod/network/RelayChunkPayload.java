@@ -0,0 +1,37 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/** Server -> client: a slice of raw MP3 bytes of a relayed station. */
+public record RelayChunkPayload(int streamId, byte[] data) implements CustomPacketPayload {
+
+    /** Upper bound accepted on decode (the relay sends 4 KiB chunks). */
+    private static final int MAX_CHUNK_BYTES = 64 * 1024;
+
+    public static final Type<RelayChunkPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "relay_chunk"));
+
+    public static final StreamCodec<FriendlyByteBuf, RelayChunkPayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public RelayChunkPayload decode(FriendlyByteBuf buf) {
+            int streamId = buf.readVarInt();
+            byte[] data = buf.readByteArray(MAX_CHUNK_BYTES);
+            return new RelayChunkPayload(streamId, data);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, RelayChunkPayload payload) {
+            buf.writeVarInt(payload.streamId());
+            buf.writeByteArray(payload.data());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
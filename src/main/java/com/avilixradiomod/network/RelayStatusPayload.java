@@ -0,0 +1,40 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.config.ModConfigs;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Server -> client: answer to {@link RelaySubscribePayload}, or notice that a relayed station ended.
+ * When {@code ok} is true, chunks for this URL arrive as {@link RelayChunkPayload} with {@code streamId}.
+ */
+public record RelayStatusPayload(String url, int streamId, boolean ok) implements CustomPacketPayload {
+
+    public static final Type<RelayStatusPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "relay_status"));
+
+    public static final StreamCodec<FriendlyByteBuf, RelayStatusPayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public RelayStatusPayload decode(FriendlyByteBuf buf) {
+            String url = buf.readUtf(ModConfigs.MAX_URL_LENGTH);
+            int streamId = buf.readVarInt();
+            boolean ok = buf.readBoolean();
+            return new RelayStatusPayload(url, streamId, ok);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, RelayStatusPayload payload) {
+            buf.writeUtf(payload.url() == null ? "" : payload.url(), ModConfigs.MAX_URL_LENGTH);
+            buf.writeVarInt(payload.streamId());
+            buf.writeBoolean(payload.ok());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,35 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.config.ModConfigs;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/** Client -> server: start/stop relaying a stream URL to this client. */
+public record RelaySubscribePayload(String url, boolean subscribe) implements CustomPacketPayload {
+
+    public static final Type<RelaySubscribePayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "relay_subscribe"));
+
+    public static final StreamCodec<FriendlyByteBuf, RelaySubscribePayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public RelaySubscribePayload decode(FriendlyByteBuf buf) {
+            String url = buf.readUtf(ModConfigs.MAX_URL_LENGTH);
+            boolean subscribe = buf.readBoolean();
+            return new RelaySubscribePayload(url, subscribe);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, RelaySubscribePayload payload) {
+            buf.writeUtf(payload.url() == null ? "" : payload.url(), ModConfigs.MAX_URL_LENGTH);
+            buf.writeBoolean(payload.subscribe());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,37 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/** Server -> client: "now playing" title of a relayed station, taken from its ICY metadata. */
+public record RelayTitlePayload(int streamId, String title) implements CustomPacketPayload {
+
+    /** An ICY metadata block is at most 255 * 16 bytes. */
+    private static final int MAX_TITLE = 4096;
+
+    public static final Type<RelayTitlePayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "relay_title"));
+
+    public static final StreamCodec<FriendlyByteBuf, RelayTitlePayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public RelayTitlePayload decode(FriendlyByteBuf buf) {
+            int streamId = buf.readVarInt();
+            String title = buf.readUtf(MAX_TITLE);
+            return new RelayTitlePayload(streamId, title);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, RelayTitlePayload payload) {
+            buf.writeVarInt(payload.streamId());
+            buf.writeUtf(payload.title() == null ? "" : payload.title(), MAX_TITLE);
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -2,7 +2,13 @@ package com.avilixradiomod.network;
 
 import com.avilixradiomod.blockentity.RadioBlockEntity;
 import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.server.data.ChannelTable;
+import com.avilixradiomod.server.data.RadioWorldState;
+import com.avilixradiomod.server.data.UrlTable;
 import com.avilixradiomod.server.db.RadioLinkLogger;
+import com.avilixradiomod.server.relay.StreamRelay;
+import com.avilixradiomod.server.sync.SettingsRateLimiter;
+import com.avilixradiomod.server.sync.UrlGrants;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.Level;
@@ -17,6 +23,16 @@ public final class ServerPayloadHandler {
             return;
         }
 
+        // Nothing would change (a re-sent or reverted setting): don't spend a token on it.
+        if (isUnchanged(player, payload)) {
+            SettingsRateLimiter.skipUnchanged(player, payload.pos(), RadioSettingsPayload.TYPE);
+            return;
+        }
+        SettingsRateLimiter.submit(player, payload.pos(), RadioSettingsPayload.TYPE, p -> applyRadioSettings(p, payload));
+    }
+
+    /** Applies settings that passed the rate limiter (now or deferred). */
+    private static void applyRadioSettings(final ServerPlayer player, final RadioSettingsPayload payload) {
         final Level level = player.level();
         // Basic anti-abuse: only allow changing radios reasonably close to the player.
         if (player.distanceToSqr(payload.pos().getCenter()) > 64.0) {
@@ -27,20 +43,115 @@ public final class ServerPayloadHandler {
         if (be instanceof RadioBlockEntity radio) {
             final String url = sanitizeUrl(payload.url());
             final int volume = Mth.clamp(payload.volume(), 0, 100);
+            // Deferred settings may match the radio by now; no setSettings, so no sync either.
+            if (radio.hasSettings(url, payload.playing(), volume, payload.eqLow(), payload.eqMid(), payload.eqHigh())) {
+                return;
+            }
+
+            // Only a new URL is a pasted link; volume/EQ/play changes are not logged.
+            final boolean urlChanged = !url.equals(radio.getUrl());
 
-            radio.setSettings(url, payload.playing(), volume);
+            radio.setSettings(url, payload.playing(), volume, payload.eqLow(), payload.eqMid(), payload.eqHigh());
 
-            if (!url.isBlank()) {
+            if (urlChanged && !url.isBlank()) {
                 RadioLinkLogger.logPastedLink(player, payload.pos(), url);
             }
-            }
+        }
+    }
+
+    public static void handleRadioChannel(final RadioChannelPayload payload, final IPayloadContext context) {
+        if (!(context.player() instanceof ServerPlayer player)) {
+            return;
+        }
+
+        if (player.distanceToSqr(payload.pos().getCenter()) > 64.0) {
+            return;
+        }
+
+        final int channel = payload.channel();
+        if (channel != 0 && !ChannelTable.isValid(channel)) {
+            return;
+        }
+
+        // Same token bucket as settings: retuning claims a channel and broadcasts its state to everyone.
+        if (player.level().getBlockEntity(payload.pos()) instanceof RadioBlockEntity radio && radio.getChannel() == channel) {
+            SettingsRateLimiter.skipUnchanged(player, payload.pos(), RadioChannelPayload.TYPE);
+            return;
+        }
+        SettingsRateLimiter.submit(player, payload.pos(), RadioChannelPayload.TYPE, p -> applyRadioChannel(p, payload));
+    }
+
+    /** Tunes the radio once the packet passed the rate limiter (now or deferred). */
+    private static void applyRadioChannel(final ServerPlayer player, final RadioChannelPayload payload) {
+        if (player.distanceToSqr(payload.pos().getCenter()) > 64.0) {
+            return;
+        }
+
+        if (player.level().getBlockEntity(payload.pos()) instanceof RadioBlockEntity radio) {
+            radio.setChannel(payload.channel());
+        }
+    }
+
+    public static void handleRelaySubscribe(final RelaySubscribePayload payload, final IPayloadContext context) {
+        if (!(context.player() instanceof ServerPlayer player)) {
+            return;
+        }
+
+        final String url = sanitizeUrl(payload.url());
+        if (!payload.subscribe()) {
+            StreamRelay.unsubscribe(player, url);
+            return;
+        }
+
+        // Only relay what some radio in this level actually plays: the server must not become
+        // an open HTTP proxy for arbitrary URLs. StreamRelay also refuses non-public hosts.
+        final boolean allowed = StreamRelay.isEnabled()
+                && !url.isEmpty()
+                && RadioWorldState.get(player.serverLevel()).isPlayingUrl(url);
+        if (!allowed) {
+            context.reply(new RelayStatusPayload(url, 0, false));
+            return;
+        }
 
+        StreamRelay.subscribe(player, url);
+    }
+
+    public static void handleUrlLookup(final UrlLookupPayload payload, final IPayloadContext context) {
+        if (!(context.player() instanceof ServerPlayer player)) {
+            return;
+        }
+
+        // Only ids this player was sent; anything else is someone walking the table.
+        final int[] asked = payload.ids();
+        int n = 0;
+        for (int id : asked) {
+            if (UrlGrants.isGranted(player, id)) n++;
+        }
+        if (n == 0) return;
+
+        final UrlTable table = UrlTable.get(player.server);
+        final int[] ids = new int[n];
+        final String[] urls = new String[n];
+        int i = 0;
+        for (int id : asked) {
+            if (!UrlGrants.isGranted(player, id)) continue;
+            ids[i] = id;
+            urls[i++] = table.resolve(id);
+        }
+        context.reply(new UrlNamesPayload(ids, urls));
     }
 
     private static int clamp(int v, int min, int max) {
         return Math.max(min, Math.min(max, v));
     }
 
+    private static boolean isUnchanged(ServerPlayer player, RadioSettingsPayload payload) {
+        if (player.distanceToSqr(payload.pos().getCenter()) > 64.0) return false;
+        return player.level().getBlockEntity(payload.pos()) instanceof RadioBlockEntity radio
+                && radio.hasSettings(sanitizeUrl(payload.url()), payload.playing(), payload.volume(),
+                        payload.eqLow(), payload.eqMid(), payload.eqHigh());
+    }
+
     private static String sanitizeUrl(String url) {
         if (url == null) return "";
         url = url.trim();
@@ -48,6 +159,7 @@ public final class ServerPayloadHandler {
         if (url.length() > maxLen) url = url.substring(0, maxLen);
 
         // Allow only http(s) to avoid local file access.
+        if (!url.startsWith("http://") && !url.startsWith("https://")) return "";
         return url;
     }
 }
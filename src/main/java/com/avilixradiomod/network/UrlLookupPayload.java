@@ -0,0 +1,37 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Client -> server: resolve these URL table ids (block entities only sync the id).
+ * Answered with {@link UrlNamesPayload}.
+ */
+public record UrlLookupPayload(int[] ids) implements CustomPacketPayload {
+
+    /** Bounded so one answer (up to {@link com.avilixradiomod.config.ModConfigs#MAX_URL_LENGTH} chars per URL) stays under the payload size limit. */
+    public static final int MAX_IDS = 32;
+
+    public static final Type<UrlLookupPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "url_lookup"));
+
+    public static final StreamCodec<FriendlyByteBuf, UrlLookupPayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public UrlLookupPayload decode(FriendlyByteBuf buf) {
+            return new UrlLookupPayload(buf.readVarIntArray(MAX_IDS));
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, UrlLookupPayload payload) {
+            buf.writeVarIntArray(payload.ids());
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,45 @@
+package com.avilixradiomod.network;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.config.ModConfigs;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+/** Server -> client: URLs for the ids asked for in {@link UrlLookupPayload} ("" for unknown ids). */
+public record UrlNamesPayload(int[] ids, String[] urls) implements CustomPacketPayload {
+
+    public static final Type<UrlNamesPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(AvilixRadioMod.MOD_ID, "url_names"));
+
+    public static final StreamCodec<FriendlyByteBuf, UrlNamesPayload> STREAM_CODEC = new StreamCodec<>() {
+        @Override
+        public UrlNamesPayload decode(FriendlyByteBuf buf) {
+            int n = buf.readVarInt();
+            if (n < 0 || n > UrlLookupPayload.MAX_IDS) throw new DecoderException("Too many URLs: " + n);
+            int[] ids = new int[n];
+            String[] urls = new String[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = buf.readVarInt();
+                urls[i] = buf.readUtf(ModConfigs.MAX_URL_LENGTH);
+            }
+            return new UrlNamesPayload(ids, urls);
+        }
+
+        @Override
+        public void encode(FriendlyByteBuf buf, UrlNamesPayload payload) {
+            buf.writeVarInt(payload.ids().length);
+            for (int i = 0; i < payload.ids().length; i++) {
+                buf.writeVarInt(payload.ids()[i]);
+                buf.writeUtf(payload.urls()[i] == null ? "" : payload.urls()[i], ModConfigs.MAX_URL_LENGTH);
+            }
+        }
+    };
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.avilixradiomod.server;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.server.data.OrphanSweeper;
+import com.avilixradiomod.server.data.RadioWorldState;
+import com.avilixradiomod.server.relay.StreamRelay;
+import com.avilixradiomod.server.sync.ChangeBuffer;
+import com.avilixradiomod.server.sync.SettingsRateLimiter;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code /radio stats}: the server-side counters of the mod's background services, so their
+ * effect can be checked on a live server. Counters are running totals since the game started. Ops only.
+ */
+@EventBusSubscriber(modid = AvilixRadioMod.MOD_ID, bus = EventBusSubscriber.Bus.GAME)
+public final class RadioCommands {
+    private RadioCommands() {}
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal("radio")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats").executes(ctx -> stats(ctx.getSource()))));
+    }
+
+    private static int stats(CommandSourceStack source) {
+        final List<String> lines = statLines();
+        for (String line : lines) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return lines.size();
+    }
+
+    private static List<String> statLines() {
+        final List<String> lines = new ArrayList<>();
+        lines.add(String.format("Settings packets: %d applied, %d throttled, %d merged, %d dropped, %d unchanged",
+                SettingsRateLimiter.getApplied(), SettingsRateLimiter.getThrottled(), SettingsRateLimiter.getMerged(),
+                SettingsRateLimiter.getDropped(), SettingsRateLimiter.getUnchanged()));
+        lines.add(String.format("Radio world state: %d dirty transitions, %d unchanged updates, %d shards evicted",
+                RadioWorldState.getDirtyTransitions(), RadioWorldState.getUnchangedUpdates(), RadioWorldState.getEvictedShards()));
+        lines.add(String.format("Orphan sweep: %d entries checked, %d reclaimed",
+                OrphanSweeper.getChecked(), OrphanSweeper.getReclaimed()));
+        lines.add(String.format("Sync buffer: %d changes queued, %d merged, %d bundles sent",
+                ChangeBuffer.getQueued(), ChangeBuffer.getMerged(), ChangeBuffer.getBundlesSent()));
+        lines.add(String.format("Stream relay: %d stations, %d chunks sent, %d dropped",
+                StreamRelay.activeStations(), StreamRelay.sentChunks(), StreamRelay.droppedChunks()));
+        return lines;
+    }
+}
@@ -1,7 +1,16 @@
 package com.avilixradiomod.server;
 
 import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.server.data.ChannelTable;
+import com.avilixradiomod.server.data.OrphanSweeper;
+import com.avilixradiomod.server.data.RadioWorldState;
+import com.avilixradiomod.server.data.UrlTable;
 import com.avilixradiomod.server.db.RadioDatabase;
+import com.avilixradiomod.server.relay.StreamRelay;
+import com.avilixradiomod.server.sync.AudibilityService;
+import com.avilixradiomod.server.sync.ChangeBuffer;
+import com.avilixradiomod.server.sync.SettingsRateLimiter;
+import com.avilixradiomod.server.sync.UrlGrants;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
@@ -18,6 +27,15 @@ public final class ServerLifecycleEvents {
 
     @SubscribeEvent
     public static void onServerStopping(ServerStoppingEvent event) {
+        StreamRelay.shutdown();
+        AudibilityService.clear();
+        ChangeBuffer.clear();
+        SettingsRateLimiter.clear();
+        UrlGrants.clear();
+        OrphanSweeper.clear();
+        RadioWorldState.clearCache();
+        UrlTable.clearCache();
+        ChannelTable.clearCache();
         RadioDatabase.shutdown();
     }
 }
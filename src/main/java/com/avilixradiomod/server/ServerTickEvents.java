@@ -0,0 +1,75 @@
+package com.avilixradiomod.server;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.server.data.ChannelTable;
+import com.avilixradiomod.server.data.OrphanSweeper;
+import com.avilixradiomod.server.data.RadioWorldState;
+import com.avilixradiomod.server.relay.StreamRelay;
+import com.avilixradiomod.server.sync.AudibilityService;
+import com.avilixradiomod.server.sync.ChangeBuffer;
+import com.avilixradiomod.server.sync.SettingsRateLimiter;
+import com.avilixradiomod.server.sync.UrlGrants;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.ChunkWatchEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+/**
+ * Server tick / player / chunk hooks for the mod's background services.
+ */
+@EventBusSubscriber(modid = AvilixRadioMod.MOD_ID, bus = EventBusSubscriber.Bus.GAME)
+public final class ServerTickEvents {
+    private ServerTickEvents() {}
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        StreamRelay.tick();
+        AudibilityService.tick(event.getServer());
+        OrphanSweeper.tick(event.getServer());
+        RadioWorldState.tick(event.getServer());
+        SettingsRateLimiter.tick(event.getServer());
+        // Last: everything changed during this tick goes out as one bundle per player.
+        ChangeBuffer.flush(event.getServer());
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel sl) {
+            RadioWorldState.onChunkLoad(sl, event.getChunk().getPos());
+            OrphanSweeper.onChunkLoad(sl, event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel sl) {
+            OrphanSweeper.onChunkUnload(sl, event.getChunk().getPos());
+            RadioWorldState.onChunkUnload(sl, event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkWatch(ChunkWatchEvent.Watch event) {
+        // The chunk data carries the URL ids of its radios and speakers.
+        UrlGrants.grantChunk(event.getPlayer(), event.getChunk());
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ChannelTable.get(player.server).sendAll(player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        StreamRelay.unsubscribeAll(event.getEntity().getUUID());
+        AudibilityService.onLogout(event.getEntity().getUUID());
+        SettingsRateLimiter.onLogout(event.getEntity().getUUID());
+        UrlGrants.onLogout(event.getEntity().getUUID());
+    }
+}
@@ -0,0 +1,199 @@
+package com.avilixradiomod.server.data;
+
+import com.avilixradiomod.network.ChannelStatePayload;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.neoforged.neoforge.network.PacketDistributor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Server-wide table of frequency channels (1..{@link #MAX_CHANNEL}).
+ *
+ * A radio tuned to a channel publishes its state here; speakers tuned to the channel read it from
+ * here (server) or from the client copy, instead of each resolving a linked radio position. A state
+ * change is one table write plus one small payload to every player, however many speakers listen.
+ *
+ * A radio takes a channel over only on an explicit action ({@link #claim}: tuned to it, started
+ * playing or switched station). Otherwise ({@link #refresh}, e.g. on chunk load) only the owner
+ * updates the state, so two radios on one channel don't take turns as their chunks load. A live
+ * channel (its owner still exists and plays) can't be claimed by another radio at all; it becomes
+ * free once the owner stops, is retuned or removed. Server thread only.
+ */
+public final class ChannelTable extends SavedData {
+
+    public static final int MAX_CHANNEL = 16;
+
+    public record Entry(String url, boolean playing, int volume) {
+        public static final Entry SILENT = new Entry("", false, 100);
+    }
+
+    private static final String DATA_NAME = "avilixradiomod_channels";
+    private static final String TAG_CHANNELS = "Channels";
+    private static final String TAG_CHANNEL = "Channel";
+    private static final String TAG_URL = "Url";
+    private static final String TAG_PLAYING = "Playing";
+    private static final String TAG_VOLUME = "Volume";
+    private static final String TAG_DIM = "Dim";
+    private static final String TAG_POS = "Pos";
+
+    private static final SavedData.Factory<ChannelTable> FACTORY =
+            SavedDataCompat.factory(ChannelTable::new, ChannelTable::load);
+
+    @Nullable
+    private static ChannelTable instance;
+    @Nullable
+    private static MinecraftServer instanceServer;
+
+    /** Index = channel; index 0 is unused. */
+    private final Entry[] entries = new Entry[MAX_CHANNEL + 1];
+    private final ResourceLocation[] ownerDim = new ResourceLocation[MAX_CHANNEL + 1];
+    private final long[] ownerPos = new long[MAX_CHANNEL + 1];
+
+    private ChannelTable() {}
+
+    public static ChannelTable get(MinecraftServer server) {
+        if (instance == null || instanceServer != server) {
+            instance = server.overworld().getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+            instanceServer = server;
+        }
+        return instance;
+    }
+
+    /** Drops the cached table (server stopping). */
+    public static void clearCache() {
+        instance = null;
+        instanceServer = null;
+    }
+
+    public static boolean isValid(int channel) {
+        return channel >= 1 && channel <= MAX_CHANNEL;
+    }
+
+    public Entry get(int channel) {
+        final Entry e = isValid(channel) ? entries[channel] : null;
+        return e != null ? e : Entry.SILENT;
+    }
+
+    /**
+     * Radio at {@code dim}/{@code pos} now drives this channel. Players are only told if the state
+     * changed. Returns false (nothing changes) while another radio holds the channel and plays.
+     */
+    public boolean claim(int channel, ResourceLocation dim, BlockPos pos, String url, boolean playing, int volume) {
+        if (!isValid(channel) || isHeldByOther(channel, dim, pos.asLong())) return false;
+        if (!isOwner(channel, dim, pos.asLong())) {
+            ownerDim[channel] = dim;
+            ownerPos[channel] = pos.asLong();
+            setDirty();
+        }
+        setState(channel, entry(url, playing, volume));
+        return true;
+    }
+
+    /** Updates the channel state if this radio owns the channel; otherwise does nothing. */
+    public void refresh(int channel, ResourceLocation dim, BlockPos pos, String url, boolean playing, int volume) {
+        if (!isValid(channel) || !isOwner(channel, dim, pos.asLong())) return;
+        setState(channel, entry(url, playing, volume));
+    }
+
+    /** Silences the channel if this radio is its owner. */
+    public void unpublish(int channel, ResourceLocation dim, BlockPos pos) {
+        if (!isValid(channel) || !isOwner(channel, dim, pos.asLong())) return;
+        ownerDim[channel] = null;
+        setDirty();
+        setState(channel, Entry.SILENT);
+    }
+
+    /** Radio removed: silences every channel it owned. */
+    public void removeOwner(ResourceLocation dim, BlockPos pos) {
+        for (int ch = 1; ch <= MAX_CHANNEL; ch++) unpublish(ch, dim, pos);
+    }
+
+    /** Sends the whole table to a player that just joined. */
+    public void sendAll(ServerPlayer player) {
+        for (int ch = 1; ch <= MAX_CHANNEL; ch++) {
+            final Entry e = entries[ch];
+            if (e != null && !e.equals(Entry.SILENT)) {
+                PacketDistributor.sendToPlayer(player, new ChannelStatePayload(ch, e.url(), e.playing(), e.volume()));
+            }
+        }
+    }
+
+    private static Entry entry(String url, boolean playing, int volume) {
+        return new Entry(url == null ? "" : url, playing, Math.max(0, Math.min(100, volume)));
+    }
+
+    private boolean isOwner(int channel, ResourceLocation dim, long pos) {
+        return dim.equals(ownerDim[channel]) && ownerPos[channel] == pos;
+    }
+
+    /**
+     * Another radio owns the channel and is still playing. Checked against the owner's stored
+     * state rather than the table entry alone, so an owner lost without unpublishing (crash, a
+     * world edit) doesn't lock the channel forever.
+     */
+    private boolean isHeldByOther(int channel, ResourceLocation dim, long pos) {
+        final ResourceLocation owner = ownerDim[channel];
+        if (owner == null || isOwner(channel, dim, pos) || !get(channel).playing() || instanceServer == null) return false;
+
+        final ServerLevel level = instanceServer.getLevel(ResourceKey.create(Registries.DIMENSION, owner));
+        if (level == null) return false;
+        final RadioWorldState.Entry state = RadioWorldState.get(level).get(BlockPos.of(ownerPos[channel]));
+        return state != null && state.playing();
+    }
+
+    private void setState(int channel, Entry entry) {
+        if (entry.equals(get(channel))) return;
+        entries[channel] = entry;
+        setDirty();
+        PacketDistributor.sendToAllPlayers(new ChannelStatePayload(channel, entry.url(), entry.playing(), entry.volume()));
+    }
+
+    private static ChannelTable load(CompoundTag tag, HolderLookup.Provider registries) {
+        final ChannelTable table = new ChannelTable();
+        final ListTag list = tag.getList(TAG_CHANNELS, Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            final CompoundTag c = list.getCompound(i);
+            final int ch = c.getInt(TAG_CHANNEL);
+            if (!isValid(ch)) continue;
+            table.entries[ch] = new Entry(c.getString(TAG_URL), c.getBoolean(TAG_PLAYING), c.getInt(TAG_VOLUME));
+            final String dim = c.getString(TAG_DIM);
+            table.ownerDim[ch] = dim.isEmpty() ? null : ResourceLocation.tryParse(dim);
+            table.ownerPos[ch] = c.getLong(TAG_POS);
+        }
+        return table;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        final ListTag list = new ListTag();
+        for (int ch = 1; ch <= MAX_CHANNEL; ch++) {
+            final Entry e = entries[ch];
+            if (e == null && ownerDim[ch] == null) continue;
+            final Entry v = Objects.requireNonNullElse(e, Entry.SILENT);
+            final CompoundTag c = new CompoundTag();
+            c.putInt(TAG_CHANNEL, ch);
+            c.putString(TAG_URL, v.url());
+            c.putBoolean(TAG_PLAYING, v.playing());
+            c.putInt(TAG_VOLUME, v.volume());
+            if (ownerDim[ch] != null) {
+                c.putString(TAG_DIM, ownerDim[ch].toString());
+                c.putLong(TAG_POS, ownerPos[ch]);
+            }
+            list.add(c);
+        }
+        tag.put(TAG_CHANNELS, list);
+        return tag;
+    }
+}
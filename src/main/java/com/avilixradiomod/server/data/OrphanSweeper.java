@@ -0,0 +1,98 @@
+package com.avilixradiomod.server.data;
+
+import com.avilixradiomod.block.RadioBlock;
+import com.avilixradiomod.config.ModConfigs;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Removes {@link RadioWorldState} entries whose radio block no longer exists.
+ *
+ * Entries are normally removed in {@code RadioBlock.onRemove}, which doesn't run for world edits,
+ * regenerated chunks or a crash between saves. Loaded chunks are queued here and checked a few
+ * entries per tick: any stored position that no longer holds a radio is dropped, so speakers stop
+ * playing it and the shard shrinks on the next save. Server thread only.
+ */
+public final class OrphanSweeper {
+    private OrphanSweeper() {}
+
+    /** Chunks waiting to be checked, per level, in load order. Unloaded chunks are dropped again. */
+    private static final Map<ResourceKey<Level>, LongLinkedOpenHashSet> PENDING = new HashMap<>();
+
+    private static long checked = 0L;
+    private static long reclaimed = 0L;
+
+    public static void onChunkLoad(ServerLevel level, ChunkPos chunk) {
+        if (ModConfigs.COMMON.sweepChecksPerTick.get() <= 0) return;
+        PENDING.computeIfAbsent(level.dimension(), k -> new LongLinkedOpenHashSet()).add(chunk.toLong());
+    }
+
+    public static void onChunkUnload(ServerLevel level, ChunkPos chunk) {
+        final LongLinkedOpenHashSet queue = PENDING.get(level.dimension());
+        if (queue != null) queue.remove(chunk.toLong());
+    }
+
+    /** Checks queued chunks until the per-tick budget is used up (one unit per chunk and per entry). */
+    public static void tick(MinecraftServer server) {
+        int budget = ModConfigs.COMMON.sweepChecksPerTick.get();
+        if (budget <= 0 || PENDING.isEmpty()) return;
+
+        final Iterator<Map.Entry<ResourceKey<Level>, LongLinkedOpenHashSet>> it = PENDING.entrySet().iterator();
+        while (it.hasNext() && budget > 0) {
+            final Map.Entry<ResourceKey<Level>, LongLinkedOpenHashSet> e = it.next();
+            final ServerLevel level = server.getLevel(e.getKey());
+            final LongLinkedOpenHashSet queue = e.getValue();
+            if (level == null) {
+                it.remove();
+                continue;
+            }
+
+            while (!queue.isEmpty() && budget > 0) {
+                budget -= 1 + sweepChunk(level, new ChunkPos(queue.removeFirstLong()));
+            }
+            if (queue.isEmpty()) it.remove();
+        }
+    }
+
+    /** Returns the number of entries checked. */
+    private static int sweepChunk(ServerLevel level, ChunkPos chunk) {
+        if (!level.hasChunk(chunk.x, chunk.z)) return 0;
+
+        final RadioWorldState state = RadioWorldState.get(level);
+        final long[] positions = state.positionsInChunk(chunk);
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (long p : positions) {
+            pos.set(p);
+            if (!(level.getBlockState(pos).getBlock() instanceof RadioBlock)) {
+                state.remove(pos);
+                reclaimed++;
+            }
+        }
+        checked += positions.length;
+        return positions.length;
+    }
+
+    /** Server stopping. */
+    public static void clear() {
+        PENDING.clear();
+    }
+
+    /** Stored entries verified so far. */
+    public static long getChecked() {
+        return checked;
+    }
+
+    /** Entries removed because their radio was gone. */
+    public static long getReclaimed() {
+        return reclaimed;
+    }
+}
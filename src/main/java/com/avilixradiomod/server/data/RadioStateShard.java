@@ -0,0 +1,167 @@
+package com.avilixradiomod.server.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.saveddata.SavedData;
+
+/**
+ * Radio state of one region (32x32 chunks), stored as its own SavedData file.
+ * Only shards that changed are written on save. Also reads the old single-file store.
+ *
+ * Saved in a columnar layout: a {@code long[]} of positions, one flags/volume byte per radio and an
+ * index into a table of distinct URLs, instead of one compound (with repeated keys and URL
+ * strings) per radio. The old per-entry list is still read.
+ *
+ * Entries are also indexed by chunk (not saved, rebuilt on load), so the orphan sweeper can look up
+ * the radios of a freshly loaded chunk without scanning the region. Mutate through {@link #put} /
+ * {@link #remove} so the index stays in step.
+ */
+final class RadioStateShard extends SavedData {
+
+    // Format 1 (legacy): "Entries" = list of {Pos, Url, Playing, Volume} compounds.
+    private static final String TAG_ENTRIES = "Entries";
+
+    // Format 2 (columnar): parallel arrays plus a table of distinct URLs.
+    private static final String TAG_FORMAT = "Format";
+    private static final int FORMAT_COLUMNAR = 2;
+    private static final String TAG_POS = "Pos";
+    private static final String TAG_FLAGS = "Flags";
+    private static final String TAG_URL_INDEX = "UrlIdx";
+    private static final String TAG_URLS = "Urls";
+
+    /** Flags byte: bit 7 = playing, bits 0..6 = volume (0..100). */
+    private static final int FLAG_PLAYING = 0x80;
+    private static final int VOLUME_MASK = 0x7F;
+
+    static final SavedData.Factory<RadioStateShard> FACTORY =
+            SavedDataCompat.factory(RadioStateShard::new, RadioStateShard::load);
+
+    final Long2ObjectOpenHashMap<RadioWorldState.Entry> byPos = new Long2ObjectOpenHashMap<>();
+    /** Chunk key -> positions stored in that chunk. */
+    private final Long2ObjectOpenHashMap<LongArrayList> byChunk = new Long2ObjectOpenHashMap<>();
+
+    RadioStateShard() {}
+
+    /** Stores the entry and returns the previous one. */
+    RadioWorldState.Entry put(long pos, RadioWorldState.Entry entry) {
+        final RadioWorldState.Entry prev = byPos.put(pos, entry);
+        if (prev == null) {
+            byChunk.computeIfAbsent(chunkKey(pos), k -> new LongArrayList(2)).add(pos);
+        }
+        return prev;
+    }
+
+    /** Removes the entry and returns it, or null if there was none. */
+    RadioWorldState.Entry remove(long pos) {
+        final RadioWorldState.Entry prev = byPos.remove(pos);
+        if (prev != null) {
+            final long key = chunkKey(pos);
+            final LongArrayList list = byChunk.get(key);
+            if (list != null) {
+                list.rem(pos);
+                if (list.isEmpty()) byChunk.remove(key);
+            }
+        }
+        return prev;
+    }
+
+    void clear() {
+        byPos.clear();
+        byChunk.clear();
+    }
+
+    /** Copy of the positions stored in this chunk (empty if none). */
+    long[] positionsIn(long chunkKey) {
+        final LongArrayList list = byChunk.get(chunkKey);
+        return list == null ? new long[0] : list.toLongArray();
+    }
+
+    private static long chunkKey(long pos) {
+        return ChunkPos.asLong(SectionPos.blockToSectionCoord(BlockPos.getX(pos)), SectionPos.blockToSectionCoord(BlockPos.getZ(pos)));
+    }
+
+    static RadioStateShard load(CompoundTag tag, HolderLookup.Provider registries) {
+        RadioStateShard st = new RadioStateShard();
+        if (tag.getInt(TAG_FORMAT) >= FORMAT_COLUMNAR) {
+            st.loadColumnar(tag);
+        } else {
+            st.loadLegacy(tag);
+        }
+        return st;
+    }
+
+    private void loadColumnar(CompoundTag tag) {
+        final long[] pos = tag.getLongArray(TAG_POS);
+        final byte[] flags = tag.getByteArray(TAG_FLAGS);
+        final int[] urlIdx = tag.getIntArray(TAG_URL_INDEX);
+        final ListTag urlList = tag.getList(TAG_URLS, Tag.TAG_STRING);
+
+        final String[] urls = new String[urlList.size()];
+        for (int i = 0; i < urls.length; i++) urls[i] = urlList.getString(i);
+
+        final int n = Math.min(pos.length, Math.min(flags.length, urlIdx.length));
+        for (int i = 0; i < n; i++) {
+            final int u = urlIdx[i];
+            final String url = u >= 0 && u < urls.length ? urls[u] : "";
+            final int f = flags[i] & 0xFF;
+            put(pos[i], new RadioWorldState.Entry(url, (f & FLAG_PLAYING) != 0, Math.min(100, f & VOLUME_MASK)));
+        }
+    }
+
+    /** Format 1: a list of compounds with Pos/Url/Playing/Volume each. */
+    private void loadLegacy(CompoundTag tag) {
+        ListTag list = tag.getList(TAG_ENTRIES, Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag e = list.getCompound(i);
+            long pos = e.getLong("Pos");
+            String url = e.getString("Url");
+            boolean playing = e.getBoolean("Playing");
+            int volume = e.contains("Volume") ? e.getInt("Volume") : 100;
+            put(pos, new RadioWorldState.Entry(url, playing, volume));
+        }
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        final int n = byPos.size();
+        final long[] pos = new long[n];
+        final byte[] flags = new byte[n];
+        final int[] urlIdx = new int[n];
+        final Object2IntOpenHashMap<String> urlIds = new Object2IntOpenHashMap<>();
+        final ListTag urls = new ListTag();
+
+        int i = 0;
+        for (Long2ObjectMap.Entry<RadioWorldState.Entry> e : byPos.long2ObjectEntrySet()) {
+            final RadioWorldState.Entry v = e.getValue();
+            final String url = v.url() == null ? "" : v.url();
+            int id = urlIds.getOrDefault(url, -1);
+            if (id < 0) {
+                id = urls.size();
+                urlIds.put(url, id);
+                urls.add(StringTag.valueOf(url));
+            }
+
+            pos[i] = e.getLongKey();
+            flags[i] = (byte) ((v.playing() ? FLAG_PLAYING : 0) | (Math.max(0, Math.min(100, v.volume())) & VOLUME_MASK));
+            urlIdx[i] = id;
+            i++;
+        }
+
+        tag.putInt(TAG_FORMAT, FORMAT_COLUMNAR);
+        tag.putLongArray(TAG_POS, pos);
+        tag.putByteArray(TAG_FLAGS, flags);
+        tag.putIntArray(TAG_URL_INDEX, urlIdx);
+        tag.put(TAG_URLS, urls);
+        return tag;
+    }
+}
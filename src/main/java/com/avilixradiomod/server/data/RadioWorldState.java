@@ -1,12 +1,19 @@
 package com.avilixradiomod.server.data;
 
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.HolderLookup;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.Tag;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.DimensionDataStorage;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,136 +24,231 @@ import java.util.Map;
  * Purpose:
  *  - Speakers must keep working even when the linked radio chunk is NOT loaded.
  *  - We store the last known state for each Radio block position.
+ *
+ * Radios re-publish their state on every chunk load, so {@link #update} only marks the data dirty
+ * when the entry really changed; otherwise exploring would rewrite the file on every save.
+ *
+ * Storage is sharded by region (32x32 chunks, like .mca files): each region is its own SavedData
+ * file ({@code avilixradiomod_radio_state_r.X.Z}), loaded on first lookup and only written when it
+ * changed. The old single file is split into shards the first time a level is accessed. Lookups
+ * only read existing files; only {@link #update} creates a shard. A clean shard none of whose chunks
+ * has been loaded for {@link #IDLE_TICKS} is dropped again (also from the data storage cache), so
+ * exploring doesn't keep every visited region in memory.
  */
-public final class RadioWorldState extends SavedData {
+public final class RadioWorldState {
 
     private static final String DATA_NAME = "avilixradiomod_radio_state";
-    private static final String TAG_ENTRIES = "Entries";
 
-    private final Map<Long, Entry> byPos = new HashMap<>();
+    /** Region = 2^5 chunks. */
+    private static final int REGION_SHIFT = 5;
+
+    /** A shard is evicted after this many ticks without a loaded chunk or a lookup. */
+    private static final long IDLE_TICKS = 1200L;
+    private static final int EVICT_INTERVAL_TICKS = 200;
+
+    private static final Map<ResourceKey<Level>, RadioWorldState> BY_LEVEL = new HashMap<>();
+
+    // Save churn metrics (server thread): clean -> dirty transitions, and updates that changed nothing.
+    private static long dirtyTransitions = 0L;
+    private static long unchangedUpdates = 0L;
+    private static long evictedShards = 0L;
+    private static int evictCountdown = EVICT_INTERVAL_TICKS;
 
     public record Entry(String url, boolean playing, int volume) {}
 
+    private final ServerLevel level;
+    /** Shards resolved so far (region key -> shard); the data storage caches them too. */
+    private final Long2ObjectOpenHashMap<RadioStateShard> shards = new Long2ObjectOpenHashMap<>();
+    /** Playing entries per URL over {@link #shards}. */
+    private final Object2IntOpenHashMap<String> playingByUrl = new Object2IntOpenHashMap<>();
+    /** Region key -> loaded chunks in it. */
+    private final Long2IntOpenHashMap loadedChunks = new Long2IntOpenHashMap();
+    /** Region key -> game time of the last lookup, for resolved shards without a loaded chunk. */
+    private final Long2LongOpenHashMap idleSince = new Long2LongOpenHashMap();
+
+    private RadioWorldState(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static RadioWorldState get(ServerLevel level) {
+        RadioWorldState st = BY_LEVEL.get(level.dimension());
+        if (st == null || st.level != level) {
+            st = new RadioWorldState(level);
+            st.migrateLegacy();
+            BY_LEVEL.put(level.dimension(), st);
+        }
+        return st;
+    }
+
+    /** Drops cached level references (server stopping). */
+    public static void clearCache() {
+        BY_LEVEL.clear();
+    }
+
+    public void update(BlockPos pos, String url, boolean playing, int volume) {
+        final Entry entry = new Entry(url == null ? "" : url, playing, Math.max(0, Math.min(100, volume)));
+        final RadioStateShard shard = shardFor(pos.asLong(), true);
+        final Entry prev = shard.put(pos.asLong(), entry);
+        if (entry.equals(prev)) {
+            unchangedUpdates++;
+            return;
+        }
+        countPlaying(prev, -1);
+        countPlaying(entry, 1);
+        markChanged(shard);
+    }
+
+    public void remove(BlockPos pos) {
+        final RadioStateShard shard = shardFor(pos.asLong(), false);
+        if (shard == null) return;
+        final Entry prev = shard.remove(pos.asLong());
+        if (prev != null) {
+            countPlaying(prev, -1);
+            markChanged(shard);
+        }
+    }
+
+    @Nullable
+    public Entry get(BlockPos pos) {
+        final RadioStateShard shard = shardFor(pos.asLong(), false);
+        return shard == null ? null : shard.byPos.get(pos.asLong());
+    }
+
     /**
-     * Minecraft/NeoForge changed {@link net.minecraft.world.level.saveddata.SavedData.Factory}
-     * constructor signatures multiple times (2 args vs 3 args with a DataFixTypes parameter).
-     *
-     * To keep this mod compiling across mappings/patch versions, we instantiate the factory
-     * reflectively and pass a best-effort DataFixTypes when required.
+     * Stored radio positions in this chunk. Only reads the region file if it exists, so sweeping
+     * explored terrain doesn't create (and keep) empty shards.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static final SavedData.Factory<RadioWorldState> FACTORY = (SavedData.Factory) createFactoryCompat();
-
-    private static Object createFactoryCompat() {
-        try {
-            // The real runtime order is NOT stable across mappings/patches.
-            // We detect parameter types and place arguments accordingly.
-            var loadFn = (java.util.function.BiFunction<CompoundTag, HolderLookup.Provider, RadioWorldState>) RadioWorldState::load;
-            var supplier = (java.util.function.Supplier<RadioWorldState>) RadioWorldState::new;
-
-            for (var ctor : SavedData.Factory.class.getConstructors()) {
-                Class<?>[] p = ctor.getParameterTypes();
-                if (p.length != 2 && p.length != 3) continue;
-
-                Object[] args = new Object[p.length];
-                boolean ok = true;
-                for (int i = 0; i < p.length; i++) {
-                    Class<?> pi = p[i];
-                    if (pi.isAssignableFrom(java.util.function.Supplier.class)) {
-                        args[i] = supplier;
-                    } else if (pi.isAssignableFrom(java.util.function.BiFunction.class)) {
-                        args[i] = loadFn;
-                    } else {
-                        // Usually DataFixTypes (enum) in newer versions.
-                        args[i] = resolveDataFixTypesConstant(pi);
-                    }
-
-                    // If we couldn't match a required functional interface, skip this ctor.
-                    if (args[i] == null && (pi.isAssignableFrom(java.util.function.Supplier.class)
-                            || pi.isAssignableFrom(java.util.function.BiFunction.class))) {
-                        ok = false;
-                        break;
-                    }
-                }
-
-                if (!ok) continue;
-                return ctor.newInstance(args);
-            }
-            throw new IllegalStateException("No compatible SavedData.Factory constructor found");
-        } catch (Throwable t) {
-            throw new RuntimeException("Failed to create SavedData.Factory for RadioWorldState", t);
-        }
+    public long[] positionsInChunk(ChunkPos chunk) {
+        final RadioStateShard shard = shard(chunk.x >> REGION_SHIFT, chunk.z >> REGION_SHIFT, false);
+        return shard == null ? new long[0] : shard.positionsIn(chunk.toLong());
     }
 
-    private static Object resolveDataFixTypesConstant(Class<?> paramType) {
-        try {
-            // Most common type: net.minecraft.util.datafix.DataFixTypes (an enum)
-            if (paramType.isEnum()) {
-                for (String name : new String[]{"SAVED_DATA", "LEVEL", "CHUNK", "PLAYER"}) {
-                    try {
-                        return java.lang.Enum.valueOf((Class) paramType, name);
-                    } catch (IllegalArgumentException ignored) {
-                        // keep trying
-                    }
-                }
-                // Fallback: first enum constant
-                Object[] constants = paramType.getEnumConstants();
-                if (constants != null && constants.length > 0) return constants[0];
+    /**
+     * True if any radio in this level is currently playing this URL. Only looks at shards that
+     * are loaded; the radios players can hear (or whose speakers they stand at) always are.
+     */
+    public boolean isPlayingUrl(String url) {
+        return playingByUrl.getInt(url) > 0;
+    }
+
+    public static void onChunkLoad(ServerLevel level, ChunkPos chunk) {
+        final RadioWorldState st = get(level);
+        final long key = regionKey(chunk);
+        st.loadedChunks.addTo(key, 1);
+        st.idleSince.remove(key);
+    }
+
+    public static void onChunkUnload(ServerLevel level, ChunkPos chunk) {
+        final RadioWorldState st = get(level);
+        final long key = regionKey(chunk);
+        if (st.loadedChunks.addTo(key, -1) > 1) return;
+        st.loadedChunks.remove(key);
+        if (st.shards.containsKey(key)) st.idleSince.put(key, level.getGameTime());
+    }
+
+    /** Evicts idle shards now and then. */
+    public static void tick(MinecraftServer server) {
+        if (--evictCountdown > 0) return;
+        evictCountdown = EVICT_INTERVAL_TICKS;
+        for (RadioWorldState st : BY_LEVEL.values()) st.evictIdle();
+    }
+
+    /**
+     * Drops shards that have been idle long enough. Dirty ones stay until the next save wrote them.
+     * The data storage keeps its own cache of every file it read, so they are removed there too.
+     */
+    private void evictIdle() {
+        if (idleSince.isEmpty()) return;
+        final long now = level.getGameTime();
+        final var it = idleSince.long2LongEntrySet().iterator();
+        while (it.hasNext()) {
+            final Long2LongMap.Entry e = it.next();
+            if (now - e.getLongValue() < IDLE_TICKS) continue;
+            final long key = e.getLongKey();
+            final RadioStateShard shard = shards.get(key);
+            if (shard != null) {
+                if (shard.isDirty()) continue;
+                shards.remove(key);
+                for (Entry entry : shard.byPos.values()) countPlaying(entry, -1);
+                storage().cache.remove(shardName(ChunkPos.getX(key), ChunkPos.getZ(key)));
+                evictedShards++;
             }
-        } catch (Throwable ignored) {
+            it.remove();
         }
-        return null; // best-effort
     }
 
-    public static RadioWorldState get(ServerLevel level) {
-        return level.getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+    private void countPlaying(@Nullable Entry e, int delta) {
+        if (e == null || !e.playing() || e.url().isEmpty()) return;
+        if (playingByUrl.addTo(e.url(), delta) + delta <= 0) playingByUrl.removeInt(e.url());
     }
 
-    public RadioWorldState() {}
+    private static void markChanged(RadioStateShard shard) {
+        if (!shard.isDirty()) dirtyTransitions++;
+        shard.setDirty();
+    }
 
-    public static RadioWorldState load(CompoundTag tag, HolderLookup.Provider registries) {
-        RadioWorldState st = new RadioWorldState();
-        ListTag list = tag.getList(TAG_ENTRIES, Tag.TAG_COMPOUND);
-        for (int i = 0; i < list.size(); i++) {
-            CompoundTag e = list.getCompound(i);
-            long pos = e.getLong("Pos");
-            String url = e.getString("Url");
-            boolean playing = e.getBoolean("Playing");
-            int volume = e.contains("Volume") ? e.getInt("Volume") : 100;
-            st.byPos.put(pos, new Entry(url, playing, volume));
-        }
-        return st;
+    /** How often a clean shard became dirty (each one means a rewrite of that shard on the next save). */
+    public static long getDirtyTransitions() {
+        return dirtyTransitions;
     }
 
-    @Override
-    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
-        ListTag list = new ListTag();
-        for (var e : byPos.entrySet()) {
-            CompoundTag t = new CompoundTag();
-            t.putLong("Pos", e.getKey());
-            Entry v = e.getValue();
-            t.putString("Url", v.url() == null ? "" : v.url());
-            t.putBoolean("Playing", v.playing());
-            t.putInt("Volume", v.volume());
-            list.add(t);
-        }
-        tag.put(TAG_ENTRIES, list);
-        return tag;
+    /** Updates that matched the stored entry and were skipped. */
+    public static long getUnchangedUpdates() {
+        return unchangedUpdates;
     }
 
-    public void update(BlockPos pos, String url, boolean playing, int volume) {
-        long key = pos.asLong();
-        byPos.put(key, new Entry(url == null ? "" : url, playing, Math.max(0, Math.min(100, volume))));
-        setDirty();
+    /** Idle shards dropped from memory. */
+    public static long getEvictedShards() {
+        return evictedShards;
     }
 
-    public void remove(BlockPos pos) {
-        if (byPos.remove(pos.asLong()) != null) {
-            setDirty();
+    @Nullable
+    private RadioStateShard shardFor(long blockPos, boolean create) {
+        return shard(SectionPos.blockToSectionCoord(BlockPos.getX(blockPos)) >> REGION_SHIFT,
+                SectionPos.blockToSectionCoord(BlockPos.getZ(blockPos)) >> REGION_SHIFT, create);
+    }
+
+    /** Shard of this region; without {@code create}, null if the region has no file yet. */
+    @Nullable
+    private RadioStateShard shard(int rx, int rz, boolean create) {
+        final long key = ChunkPos.asLong(rx, rz);
+        RadioStateShard shard = shards.get(key);
+        if (shard == null) {
+            shard = create
+                    ? storage().computeIfAbsent(RadioStateShard.FACTORY, shardName(rx, rz))
+                    : storage().get(RadioStateShard.FACTORY, shardName(rx, rz));
+            if (shard == null) return null;
+            shards.put(key, shard);
+            for (Entry e : shard.byPos.values()) countPlaying(e, 1);
         }
+        if (!loadedChunks.containsKey(key)) idleSince.put(key, level.getGameTime());
+        return shard;
     }
 
-    public Entry get(BlockPos pos) {
-        return byPos.get(pos.asLong());
+    private static long regionKey(ChunkPos chunk) {
+        return ChunkPos.asLong(chunk.x >> REGION_SHIFT, chunk.z >> REGION_SHIFT);
+    }
+
+    private static String shardName(int rx, int rz) {
+        return DATA_NAME + "_r." + rx + "." + rz;
+    }
+
+    private DimensionDataStorage storage() {
+        return level.getDataStorage();
+    }
+
+    /** Splits the old single-file store into region shards, then leaves it empty. */
+    private void migrateLegacy() {
+        final RadioStateShard legacy = storage().get(RadioStateShard.FACTORY, DATA_NAME);
+        if (legacy == null || legacy.byPos.isEmpty()) return;
+
+        for (var e : legacy.byPos.long2ObjectEntrySet()) {
+            final RadioStateShard shard = shardFor(e.getLongKey(), true);
+            countPlaying(shard.put(e.getLongKey(), e.getValue()), -1);
+            countPlaying(e.getValue(), 1);
+            markChanged(shard);
+        }
+        legacy.clear();
+        legacy.setDirty();
     }
 }
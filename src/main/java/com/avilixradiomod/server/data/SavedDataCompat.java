@@ -0,0 +1,80 @@
+package com.avilixradiomod.server.data;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Minecraft/NeoForge changed {@link net.minecraft.world.level.saveddata.SavedData.Factory}
+ * constructor signatures multiple times (2 args vs 3 args with a DataFixTypes parameter).
+ *
+ * To keep this mod compiling across mappings/patch versions, we instantiate the factory
+ * reflectively and pass a best-effort DataFixTypes when required.
+ */
+final class SavedDataCompat {
+    private SavedDataCompat() {}
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T extends SavedData> SavedData.Factory<T> factory(Supplier<T> supplier,
+                                                              BiFunction<CompoundTag, HolderLookup.Provider, T> loadFn) {
+        try {
+            // The real runtime order is NOT stable across mappings/patches.
+            // We detect parameter types and place arguments accordingly.
+            for (var ctor : SavedData.Factory.class.getConstructors()) {
+                Class<?>[] p = ctor.getParameterTypes();
+                if (p.length != 2 && p.length != 3) continue;
+
+                Object[] args = new Object[p.length];
+                boolean ok = true;
+                for (int i = 0; i < p.length; i++) {
+                    Class<?> pi = p[i];
+                    if (pi.isAssignableFrom(Supplier.class)) {
+                        args[i] = supplier;
+                    } else if (pi.isAssignableFrom(BiFunction.class)) {
+                        args[i] = loadFn;
+                    } else {
+                        // Usually DataFixTypes (enum) in newer versions.
+                        args[i] = resolveDataFixTypesConstant(pi);
+                    }
+
+                    // If we couldn't match a required functional interface, skip this ctor.
+                    if (args[i] == null && (pi.isAssignableFrom(Supplier.class)
+                            || pi.isAssignableFrom(BiFunction.class))) {
+                        ok = false;
+                        break;
+                    }
+                }
+
+                if (!ok) continue;
+                return (SavedData.Factory) ctor.newInstance(args);
+            }
+            throw new IllegalStateException("No compatible SavedData.Factory constructor found");
+        } catch (Throwable t) {
+            throw new RuntimeException("Failed to create SavedData.Factory", t);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object resolveDataFixTypesConstant(Class<?> paramType) {
+        try {
+            // Most common type: net.minecraft.util.datafix.DataFixTypes (an enum)
+            if (paramType.isEnum()) {
+                for (String name : new String[]{"SAVED_DATA", "LEVEL", "CHUNK", "PLAYER"}) {
+                    try {
+                        return java.lang.Enum.valueOf((Class) paramType, name);
+                    } catch (IllegalArgumentException ignored) {
+                        // keep trying
+                    }
+                }
+                // Fallback: first enum constant
+                Object[] constants = paramType.getEnumConstants();
+                if (constants != null && constants.length > 0) return constants[0];
+            }
+        } catch (Throwable ignored) {
+        }
+        return null; // best-effort
+    }
+}
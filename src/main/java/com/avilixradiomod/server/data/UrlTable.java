@@ -0,0 +1,102 @@
+package com.avilixradiomod.server.data;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * World-wide table of stream URLs with stable integer ids, stored next to the overworld data.
+ *
+ * Block entities save and sync the id instead of the full URL, so a thousand speakers on one
+ * station don't repeat the same (up to 8 KiB) string in region files and chunk packets. Ids are
+ * never reused or removed: block entities in unloaded chunks may still refer to them. Id 0 is the
+ * empty URL. Server thread only.
+ */
+public final class UrlTable extends SavedData {
+
+    private static final String DATA_NAME = "avilixradiomod_urls";
+    private static final String TAG_URLS = "Urls";
+
+    private static final SavedData.Factory<UrlTable> FACTORY =
+            SavedDataCompat.factory(UrlTable::new, UrlTable::load);
+
+    @Nullable
+    private static UrlTable instance;
+    @Nullable
+    private static MinecraftServer instanceServer;
+
+    /** Index = id. */
+    private final List<String> byId = new ArrayList<>();
+    private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+
+    private UrlTable() {
+        ids.defaultReturnValue(-1);
+        byId.add("");
+        ids.put("", 0);
+    }
+
+    public static UrlTable get(MinecraftServer server) {
+        if (instance == null || instanceServer != server) {
+            instance = server.overworld().getDataStorage().computeIfAbsent(FACTORY, DATA_NAME);
+            instanceServer = server;
+        }
+        return instance;
+    }
+
+    /** Drops the cached table (server stopping). */
+    public static void clearCache() {
+        instance = null;
+        instanceServer = null;
+    }
+
+    private static UrlTable load(CompoundTag tag, HolderLookup.Provider registries) {
+        final UrlTable table = new UrlTable();
+        final ListTag list = tag.getList(TAG_URLS, Tag.TAG_STRING);
+        // Entry 0 is always "", so the saved list starts at id 1.
+        for (int i = 0; i < list.size(); i++) {
+            final String url = list.getString(i);
+            table.byId.add(url);
+            table.ids.putIfAbsent(url, table.byId.size() - 1);
+        }
+        return table;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        final ListTag list = new ListTag();
+        for (int i = 1; i < byId.size(); i++) list.add(StringTag.valueOf(byId.get(i)));
+        tag.put(TAG_URLS, list);
+        return tag;
+    }
+
+    /** Id of this URL, adding it to the table if it's new. */
+    public int intern(@Nullable String url) {
+        if (url == null || url.isEmpty()) return 0;
+        int id = ids.getInt(url);
+        if (id < 0) {
+            id = byId.size();
+            byId.add(url);
+            ids.put(url, id);
+            setDirty();
+        }
+        return id;
+    }
+
+    /** URL for this id, or "" if the id is unknown. */
+    public String resolve(int id) {
+        return id > 0 && id < byId.size() ? byId.get(id) : "";
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
@@ -0,0 +1,368 @@
+package com.avilixradiomod.server.relay;
+
+import com.avilixradiomod.AvilixRadioMod;
+import com.avilixradiomod.audio.IcyMetadataInputStream;
+import com.avilixradiomod.audio.NowPlaying;
+import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.network.RelayChunkPayload;
+import com.avilixradiomod.network.RelayStatusPayload;
+import com.avilixradiomod.network.RelayTitlePayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional server-side stream relay.
+ *
+ * Goal: each active station is fetched from the internet ONCE per server, and its MP3 bytes are
+ * fanned out to the clients that asked for it over a custom payload channel.
+ *
+ * Threads:
+ *  - one fetch thread per station appends chunks to every subscriber's queue;
+ *  - the server thread drains those queues in {@link #tick()} with a per-client byte budget.
+ * Each subscriber queue is bounded and drops the OLDEST chunk when full, so a slow client
+ * just skips audio instead of growing memory or stalling the others.
+ *
+ * The station is asked for ICY metadata like a direct connection would be; the relay strips it
+ * from the audio bytes and sends title changes as {@link RelayTitlePayload}.
+ *
+ * The server fetches URLs on behalf of players, so before connecting (and on every redirect) the
+ * host is resolved and refused unless all of its addresses are public: no loopback, private,
+ * link-local (cloud metadata) or other internal targets. Subscribers only get their "ok" once the
+ * station is connected; a refused or unreachable station answers "no" and the client connects
+ * directly.
+ */
+public final class StreamRelay {
+    private StreamRelay() {}
+
+    /** Bytes read from the station per chunk (roughly a quarter second at 128 kbps). */
+    private static final int CHUNK_BYTES = 4096;
+
+    /** Redirects followed (each one re-checked) before giving up. */
+    private static final int MAX_REDIRECTS = 5;
+
+    private static final Map<String, Station> STATIONS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_STREAM_ID = new AtomicInteger(1);
+
+    // Metrics
+    private static final AtomicLong DROPPED_CHUNKS = new AtomicLong();
+    private static final AtomicLong SENT_CHUNKS = new AtomicLong();
+
+    public static boolean isEnabled() {
+        return ModConfigs.COMMON.relayEnabled.get();
+    }
+
+    /**
+     * Server thread. Adds the player to the station for this URL, starting the fetch if needed.
+     * The {@link RelayStatusPayload} answer is sent once the station is connected (or has failed).
+     */
+    public static void subscribe(ServerPlayer player, String url) {
+        Station st = STATIONS.get(url);
+        if (st == null) {
+            if (STATIONS.size() >= ModConfigs.COMMON.relayMaxStations.get()) {
+                PacketDistributor.sendToPlayer(player, new RelayStatusPayload(url, 0, false));
+                return;
+            }
+            st = new Station(NEXT_STREAM_ID.getAndIncrement(), url);
+            STATIONS.put(url, st);
+            st.start();
+        }
+
+        final Subscriber sub = new Subscriber(player);
+        st.subscribers.put(player.getUUID(), sub);
+        if (st.connected) {
+            sub.answered = true;
+            PacketDistributor.sendToPlayer(player, new RelayStatusPayload(url, st.id, true));
+            if (st.sentTitle != null) PacketDistributor.sendToPlayer(player, new RelayTitlePayload(st.id, st.sentTitle));
+        }
+    }
+
+    /** Server thread. */
+    public static void unsubscribe(ServerPlayer player, String url) {
+        final Station st = STATIONS.get(url);
+        if (st != null) {
+            st.subscribers.remove(player.getUUID());
+        }
+    }
+
+    /** Server thread (player logged out). */
+    public static void unsubscribeAll(UUID playerId) {
+        for (Station st : STATIONS.values()) {
+            st.subscribers.remove(playerId);
+        }
+    }
+
+    /**
+     * Server thread, once per tick: answer subscribers of newly connected stations, deliver queued
+     * chunks within each client's byte budget, close idle stations and tell subscribers about
+     * failed ones.
+     */
+    public static void tick() {
+        if (STATIONS.isEmpty()) return;
+
+        final int budget = ModConfigs.COMMON.relayBytesPerTick.get();
+
+        for (Station st : STATIONS.values()) {
+            if (st.failed || st.subscribers.isEmpty()) {
+                if (st.failed) {
+                    for (Subscriber sub : st.subscribers.values()) {
+                        PacketDistributor.sendToPlayer(sub.player, new RelayStatusPayload(st.url, st.id, false));
+                    }
+                }
+                st.stop();
+                STATIONS.remove(st.url, st);
+                continue;
+            }
+
+            final boolean connected = st.connected;
+            final String title = st.title;
+            final boolean titleChanged = !Objects.equals(title, st.sentTitle);
+            st.sentTitle = title;
+            for (var it = st.subscribers.values().iterator(); it.hasNext(); ) {
+                final Subscriber sub = it.next();
+                if (sub.player.hasDisconnected()) {
+                    it.remove();
+                    continue;
+                }
+                if (!sub.answered) {
+                    if (!connected) continue;
+                    sub.answered = true;
+                    PacketDistributor.sendToPlayer(sub.player, new RelayStatusPayload(st.url, st.id, true));
+                    if (title != null) PacketDistributor.sendToPlayer(sub.player, new RelayTitlePayload(st.id, title));
+                } else if (titleChanged && title != null) {
+                    PacketDistributor.sendToPlayer(sub.player, new RelayTitlePayload(st.id, title));
+                }
+
+                int sent = 0;
+                while (sent < budget) {
+                    final byte[] chunk = sub.poll();
+                    if (chunk == null) break;
+                    PacketDistributor.sendToPlayer(sub.player, new RelayChunkPayload(st.id, chunk));
+                    SENT_CHUNKS.incrementAndGet();
+                    sent += chunk.length;
+                }
+            }
+        }
+    }
+
+    /** Server stopping. */
+    public static void shutdown() {
+        for (Station st : STATIONS.values()) {
+            st.stop();
+        }
+        STATIONS.clear();
+    }
+
+    public static int activeStations() {
+        return STATIONS.size();
+    }
+
+    public static long droppedChunks() {
+        return DROPPED_CHUNKS.get();
+    }
+
+    public static long sentChunks() {
+        return SENT_CHUNKS.get();
+    }
+
+    /** False for loopback, private, link-local, CGNAT, multicast and other non-routable addresses. */
+    static boolean isPublicAddress(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        final byte[] a = address.getAddress();
+        if (a.length == 4) {
+            final int b0 = a[0] & 0xFF;
+            final int b1 = a[1] & 0xFF;
+            if (b0 == 0) return false; // 0.0.0.0/8
+            if (b0 == 100 && (b1 & 0xC0) == 64) return false; // 100.64.0.0/10, carrier-grade NAT
+            if (b0 == 192 && b1 == 0 && a[2] == 0) return false; // 192.0.0.0/24, IETF protocol assignments
+            if (b0 == 198 && (b1 & 0xFE) == 18) return false; // 198.18.0.0/15, benchmarking
+            return b0 < 240; // 240.0.0.0/4, reserved and broadcast
+        }
+        if ((a[0] & 0xFE) == 0xFC) return false; // fc00::/7, unique local
+        // 6to4 (2002::/16) and NAT64 (64:ff9b::/96) embed an IPv4 address: check that one instead.
+        if (a[0] == 0x20 && a[1] == 0x02) {
+            return isPublicAddress(embeddedIpv4(a, 2));
+        }
+        if (a[0] == 0x00 && a[1] == 0x64 && (a[2] & 0xFF) == 0xFF && (a[3] & 0xFF) == 0x9B) {
+            return isPublicAddress(embeddedIpv4(a, 12));
+        }
+        return true;
+    }
+
+    private static InetAddress embeddedIpv4(byte[] a, int offset) {
+        try {
+            return InetAddress.getByAddress(new byte[] { a[offset], a[offset + 1], a[offset + 2], a[offset + 3] });
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // 4 bytes are always a valid address
+        }
+    }
+
+    /** Fetch thread. Throws unless the URL is http(s) and every address of its host is public. */
+    private static void checkTarget(URL url) throws IOException {
+        final String protocol = url.getProtocol();
+        if (!"http".equals(protocol) && !"https".equals(protocol)) {
+            throw new IOException("relay refuses protocol " + protocol);
+        }
+        final String host = url.getHost();
+        if (host == null || host.isEmpty()) throw new IOException("relay refuses URL without host");
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            if (!isPublicAddress(address)) {
+                throw new IOException("relay refuses non-public address " + address.getHostAddress());
+            }
+        }
+    }
+
+    private static final class Subscriber {
+        final ServerPlayer player;
+        private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+        /** Server thread: the "ok" for this subscription was sent. */
+        boolean answered = false;
+
+        Subscriber(ServerPlayer player) {
+            this.player = player;
+        }
+
+        /** Fetch thread. Drop-oldest when the client can't keep up. */
+        void offer(byte[] chunk, int maxChunks) {
+            synchronized (queue) {
+                while (queue.size() >= maxChunks) {
+                    queue.pollFirst();
+                    DROPPED_CHUNKS.incrementAndGet();
+                }
+                queue.addLast(chunk);
+            }
+        }
+
+        /** Server thread. */
+        byte[] poll() {
+            synchronized (queue) {
+                return queue.pollFirst();
+            }
+        }
+    }
+
+    private static final class Station {
+        final int id;
+        final String url;
+        final Map<UUID, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+        private Thread thread;
+        private volatile InputStream stream;
+        private volatile boolean stopping = false;
+        volatile boolean failed = false;
+        /** Upstream passed the address check and answered; subscribers may be told "ok". */
+        volatile boolean connected = false;
+        /** Latest ICY title (fetch thread), and the one subscribers were last sent (server thread). */
+        volatile String title;
+        String sentTitle;
+
+        Station(int id, String url) {
+            this.id = id;
+            this.url = url;
+        }
+
+        void start() {
+            thread = new Thread(this::run, "AvilixRadio-Relay-" + id);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            stopping = true;
+            try {
+                final InputStream s = stream;
+                if (s != null) s.close();
+            } catch (Throwable ignored) {
+            }
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        /** Connects to the station, following redirects by hand so every hop passes {@link #checkTarget}. */
+        private HttpURLConnection openUpstream() throws IOException {
+            URL target = new URL(url);
+            for (int redirects = 0; ; redirects++) {
+                checkTarget(target);
+                final HttpURLConnection conn = (HttpURLConnection) target.openConnection();
+                conn.setInstanceFollowRedirects(false);
+                conn.setConnectTimeout(8_000);
+                conn.setReadTimeout(15_000);
+                conn.setRequestProperty("User-Agent", "AvilixRadioMod");
+                conn.setRequestProperty("Icy-MetaData", "1");
+                conn.connect();
+
+                final int code = conn.getResponseCode();
+                if (code < 300 || code >= 400) return conn;
+
+                final String location = conn.getHeaderField("Location");
+                conn.disconnect();
+                if (location == null || redirects >= MAX_REDIRECTS) {
+                    throw new IOException("relay gave up on redirect " + code + " from " + target);
+                }
+                target = new URL(target, location);
+            }
+        }
+
+        private void run() {
+            try {
+                final HttpURLConnection conn = openUpstream();
+
+                InputStream in = new BufferedInputStream(conn.getInputStream(), 64 * 1024);
+                // Clients get plain MP3: metadata blocks are stripped here, the title goes out on its own.
+                final int metaInt = conn.getHeaderFieldInt("icy-metaint", 0);
+                final IcyMetadataInputStream icy = metaInt > 0 ? new IcyMetadataInputStream(in, metaInt) : null;
+                if (icy != null) in = icy;
+                stream = in;
+                connected = true;
+
+                final int queueChunks = ModConfigs.COMMON.relayClientQueueChunks.get();
+                final byte[] buf = new byte[CHUNK_BYTES];
+                while (!stopping) {
+                    final int n = in.read(buf);
+                    if (n < 0) break;
+                    if (icy != null) {
+                        final NowPlaying np = icy.nowPlaying();
+                        if (np != null) title = np.title();
+                    }
+                    if (n == 0) continue;
+
+                    // One copy per chunk, shared (read-only) by every subscriber queue.
+                    final byte[] chunk = Arrays.copyOf(buf, n);
+                    for (Subscriber sub : subscribers.values()) {
+                        sub.offer(chunk, queueChunks);
+                    }
+                }
+            } catch (Throwable t) {
+                if (!stopping) {
+                    AvilixRadioMod.LOGGER.debug("Relay station {} failed: {}", url, t.toString());
+                }
+            } finally {
+                try {
+                    final InputStream s = stream;
+                    if (s != null) s.close();
+                } catch (Throwable ignored) {
+                }
+                stream = null;
+                if (!stopping) failed = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.avilixradiomod.server.sync;
+
+import com.avilixradiomod.blockentity.RadioBlockEntity;
+import com.avilixradiomod.blockentity.SpeakerBlockEntity;
+import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.network.AudibleEmittersPayload;
+import com.avilixradiomod.server.data.UrlTable;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.neoforge.network.PacketDistributor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server-side interest management for audio emitters (radios and speakers).
+ *
+ * Keeps an index of loaded emitters per level and chunk. Every {@code scanEveryTicks} it works out,
+ * for each player, which emitters are within hearing range plus the client's pre-connect margin
+ * (the ring, or the movement prediction, whichever reaches further) and sends that player only the
+ * DIFF against what it was sent before. Clients use this set instead of scanning loaded chunks
+ * themselves, and nothing is sent while the set doesn't change. URLs go out as URL table ids,
+ * granted to the player ({@link UrlGrants}) so the client can look them up.
+ */
+public final class AudibilityService {
+    private AudibilityService() {}
+
+    /**
+     * Cap on how far ahead (in blocks) the client's movement prediction widens its scan; the server
+     * radius includes it so a predicted emitter is already in the set.
+     */
+    public static final double MAX_PREDICTION_BLOCKS = 32.0;
+
+    /** Emitter state as the client needs it; compared to detect changes. */
+    public record EmitterState(int urlId, boolean playing, int volume, int priority) {}
+
+    /** Loaded emitters: level -> chunk key -> block entities in that chunk. */
+    private static final Map<ResourceKey<Level>, Long2ObjectOpenHashMap<List<BlockEntity>>> INDEX = new HashMap<>();
+
+    private static final Map<UUID, PlayerView> VIEWS = new HashMap<>();
+
+    private static int tickCounter = 0;
+
+    private static final class PlayerView {
+        ResourceKey<Level> dimension;
+        final Long2ObjectOpenHashMap<EmitterState> sent = new Long2ObjectOpenHashMap<>();
+    }
+
+    public static boolean isEnabled() {
+        return ModConfigs.COMMON.interestSyncEnabled.get();
+    }
+
+    /** Server thread: emitter block entity loaded. */
+    public static void track(BlockEntity be) {
+        final Level level = be.getLevel();
+        if (level == null || level.isClientSide) return;
+        final long chunk = ChunkPos.asLong(SectionPos.blockToSectionCoord(be.getBlockPos().getX()),
+                SectionPos.blockToSectionCoord(be.getBlockPos().getZ()));
+        final List<BlockEntity> list = INDEX.computeIfAbsent(level.dimension(), k -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(chunk, k -> new ArrayList<>(2));
+        if (!list.contains(be)) list.add(be);
+    }
+
+    /** Server thread: emitter block entity removed or its chunk unloaded. */
+    public static void untrack(BlockEntity be) {
+        final Level level = be.getLevel();
+        if (level == null || level.isClientSide) return;
+        final Long2ObjectOpenHashMap<List<BlockEntity>> byChunk = INDEX.get(level.dimension());
+        if (byChunk == null) return;
+        final long chunk = ChunkPos.asLong(SectionPos.blockToSectionCoord(be.getBlockPos().getX()),
+                SectionPos.blockToSectionCoord(be.getBlockPos().getZ()));
+        final List<BlockEntity> list = byChunk.get(chunk);
+        if (list == null) return;
+        list.remove(be);
+        if (list.isEmpty()) byChunk.remove(chunk);
+    }
+
+    /** Server thread, once per tick. */
+    public static void tick(MinecraftServer server) {
+        if (!isEnabled()) return;
+
+        final int every = ModConfigs.COMMON.scanEveryTicks.get();
+        if (every <= 0 || (++tickCounter % every) != 0) return;
+
+        // Same reach as the client's own scan at full prediction (RadioAudioController).
+        final int ring = ModConfigs.COMMON.preconnectDistance.get();
+        final double prediction = ModConfigs.COMMON.preconnectLookaheadTicks.get() > 0 ? MAX_PREDICTION_BLOCKS : 0.0;
+        final int radius = ModConfigs.COMMON.maxHearDistance.get() + (int) Math.ceil(Math.max(ring, prediction));
+
+        final UrlTable urls = UrlTable.get(server);
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            update(player, radius, urls);
+        }
+    }
+
+    public static void onLogout(UUID playerId) {
+        VIEWS.remove(playerId);
+    }
+
+    public static void clear() {
+        INDEX.clear();
+        VIEWS.clear();
+    }
+
+    private static void update(ServerPlayer player, int radius, UrlTable urls) {
+        final ResourceKey<Level> dim = player.level().dimension();
+
+        PlayerView view = VIEWS.get(player.getUUID());
+        boolean reset = false;
+        if (view == null || view.dimension != dim) {
+            // First contact or dimension change: full snapshot.
+            view = new PlayerView();
+            view.dimension = dim;
+            VIEWS.put(player.getUUID(), view);
+            reset = true;
+        }
+
+        final Long2ObjectOpenHashMap<EmitterState> now = collect(dim, player.getX(), player.getY(), player.getZ(), radius, urls);
+
+        final List<AudibleEmittersPayload.Emitter> upserts = new ArrayList<>();
+        for (Long2ObjectMap.Entry<EmitterState> e : now.long2ObjectEntrySet()) {
+            final EmitterState prev = view.sent.get(e.getLongKey());
+            if (!e.getValue().equals(prev)) {
+                final EmitterState st = e.getValue();
+                UrlGrants.grant(player, st.urlId());
+                upserts.add(new AudibleEmittersPayload.Emitter(e.getLongKey(), st.urlId(), st.playing(), st.volume(), st.priority()));
+            }
+        }
+
+        final LongArrayList removed = new LongArrayList();
+        for (long pos : view.sent.keySet()) {
+            if (!now.containsKey(pos)) removed.add(pos);
+        }
+
+        if (!reset && upserts.isEmpty() && removed.isEmpty()) return;
+
+        view.sent.clear();
+        view.sent.putAll(now);
+
+        // Big sets go out in several packets; only the first one resets the client's copy.
+        final int max = AudibleEmittersPayload.MAX_ENTRIES;
+        int u = 0;
+        int r = 0;
+        boolean first = true;
+        do {
+            final int uTo = Math.min(upserts.size(), u + max);
+            final int rTo = Math.min(removed.size(), r + max);
+            PacketDistributor.sendToPlayer(player, new AudibleEmittersPayload(reset && first,
+                    List.copyOf(upserts.subList(u, uTo)), removed.subList(r, rTo).toLongArray()));
+            u = uTo;
+            r = rTo;
+            first = false;
+        } while (u < upserts.size() || r < removed.size());
+    }
+
+    private static Long2ObjectOpenHashMap<EmitterState> collect(ResourceKey<Level> dim, double x, double y, double z, int radius, UrlTable urls) {
+        final Long2ObjectOpenHashMap<EmitterState> out = new Long2ObjectOpenHashMap<>();
+        final Long2ObjectOpenHashMap<List<BlockEntity>> byChunk = INDEX.get(dim);
+        if (byChunk == null || byChunk.isEmpty()) return out;
+
+        final double r2 = (double) radius * radius;
+        final int minCx = SectionPos.blockToSectionCoord(x - radius);
+        final int maxCx = SectionPos.blockToSectionCoord(x + radius);
+        final int minCz = SectionPos.blockToSectionCoord(z - radius);
+        final int maxCz = SectionPos.blockToSectionCoord(z + radius);
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                final List<BlockEntity> list = byChunk.get(ChunkPos.asLong(cx, cz));
+                if (list == null) continue;
+                for (BlockEntity be : list) {
+                    if (be.isRemoved()) continue;
+                    final BlockPos pos = be.getBlockPos();
+                    if (pos.distToCenterSqr(x, y, z) > r2) continue;
+
+                    final EmitterState st = stateOf(be, urls);
+                    if (st != null) out.put(pos.asLong(), st);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Only emitters that actually play something are of interest; stopping one shows up as a removal. */
+    @Nullable
+    private static EmitterState stateOf(BlockEntity be, UrlTable urls) {
+        if (be instanceof RadioBlockEntity radio) {
+            if (!radio.isPlaying() || radio.getUrl() == null || radio.getUrl().isBlank()) return null;
+            return new EmitterState(urls.intern(radio.getUrl()), true, radio.getVolume(), 2);
+        }
+        if (be instanceof SpeakerBlockEntity speaker) {
+            // A channel speaker plays the channel's URL, not its cached one.
+            if (!speaker.isCachedPlaying() || speaker.getCachedUrl() == null || speaker.getCachedUrl().isBlank()) return null;
+            return new EmitterState(urls.intern(speaker.getCachedUrl()), true, speaker.getCachedVolume(), 1);
+        }
+        return null;
+    }
+}
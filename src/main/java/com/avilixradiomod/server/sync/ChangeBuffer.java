@@ -0,0 +1,108 @@
+package com.avilixradiomod.server.sync;
+
+import com.avilixradiomod.blockentity.RadioBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-level buffer of radio/speaker block entities whose synced state changed this tick.
+ *
+ * Instead of a block update per settings packet (and another per linked speaker), changes are
+ * collected here and flushed at the end of the server tick: each block entity once, however often it
+ * changed (its current state wins), radios publish to the world state/channel table once, and every
+ * tracking player gets all of its update packets in one bundle. Server thread only.
+ */
+public final class ChangeBuffer {
+    private ChangeBuffer() {}
+
+    /** Vanilla refuses bigger bundles. */
+    private static final int MAX_BUNDLE = 4096;
+
+    private static final Map<ResourceKey<Level>, Long2ObjectLinkedOpenHashMap<BlockEntity>> PENDING = new HashMap<>();
+
+    private static long queued = 0L;
+    private static long merged = 0L;
+    private static long bundlesSent = 0L;
+
+    /** Marks this block entity for sync at the end of the tick. */
+    public static void queue(BlockEntity be) {
+        final Level level = be.getLevel();
+        if (level == null || level.isClientSide) return;
+        queued++;
+        if (PENDING.computeIfAbsent(level.dimension(), k -> new Long2ObjectLinkedOpenHashMap<>())
+                .put(be.getBlockPos().asLong(), be) != null) {
+            merged++;
+        }
+    }
+
+    /** End of server tick. */
+    public static void flush(MinecraftServer server) {
+        if (PENDING.isEmpty()) return;
+
+        for (Map.Entry<ResourceKey<Level>, Long2ObjectLinkedOpenHashMap<BlockEntity>> e : PENDING.entrySet()) {
+            final ServerLevel level = server.getLevel(e.getKey());
+            if (level == null) continue;
+
+            final Map<ServerPlayer, List<Packet<? super ClientGamePacketListener>>> perPlayer = new IdentityHashMap<>();
+            for (BlockEntity be : e.getValue().values()) {
+                if (be.isRemoved() || be.getLevel() != level) continue;
+                if (be instanceof RadioBlockEntity radio) radio.publishState();
+
+                final Packet<ClientGamePacketListener> packet = be.getUpdatePacket();
+                if (packet == null) continue;
+                for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(new ChunkPos(be.getBlockPos()), false)) {
+                    UrlGrants.grant(player, be);
+                    perPlayer.computeIfAbsent(player, p -> new ArrayList<>()).add(packet);
+                }
+            }
+
+            perPlayer.forEach(ChangeBuffer::send);
+        }
+        PENDING.clear();
+    }
+
+    private static void send(ServerPlayer player, List<Packet<? super ClientGamePacketListener>> packets) {
+        if (packets.size() == 1) {
+            player.connection.send(packets.get(0));
+            return;
+        }
+        for (int from = 0; from < packets.size(); from += MAX_BUNDLE) {
+            player.connection.send(new ClientboundBundlePacket(packets.subList(from, Math.min(packets.size(), from + MAX_BUNDLE))));
+            bundlesSent++;
+        }
+    }
+
+    /** Server stopping. */
+    public static void clear() {
+        PENDING.clear();
+    }
+
+    /** Changes queued so far. */
+    public static long getQueued() {
+        return queued;
+    }
+
+    /** Changes merged into an already pending one (same block entity, same tick). */
+    public static long getMerged() {
+        return merged;
+    }
+
+    public static long getBundlesSent() {
+        return bundlesSent;
+    }
+}
@@ -0,0 +1,159 @@
+package com.avilixradiomod.server.sync;
+
+import com.avilixradiomod.config.ModConfigs;
+import com.avilixradiomod.network.RadioChannelPayload;
+import com.avilixradiomod.network.RadioSettingsPayload;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Per-player token bucket for radio packets that change block state ({@link RadioSettingsPayload},
+ * {@link RadioChannelPayload}); both kinds share one bucket.
+ *
+ * A packet that finds a token is applied at once. Bursts beyond the bucket are not applied one by
+ * one: they are merged per radio and payload kind (the newest one wins) and applied as tokens
+ * refill, so a flood costs at most {@code settingsPerSecond} applications and the final state still
+ * lands. Server thread only.
+ */
+public final class SettingsRateLimiter {
+    private SettingsRateLimiter() {}
+
+    /** Deferred (radio, kind) entries kept per player; beyond that the oldest is dropped. */
+    private static final int MAX_PENDING_RADIOS = 4;
+
+    private static final Map<UUID, Bucket> BUCKETS = new HashMap<>();
+
+    private static long applied = 0L;
+    private static long throttled = 0L;
+    private static long merged = 0L;
+    private static long dropped = 0L;
+    private static long unchanged = 0L;
+
+    /** A radio and the payload kind that targets it. */
+    private record Key(long pos, CustomPacketPayload.Type<?> kind) {}
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefillNanos;
+        /** (radio, kind) -> newest deferred action. */
+        final Object2ObjectLinkedOpenHashMap<Key, Consumer<ServerPlayer>> pending = new Object2ObjectLinkedOpenHashMap<>();
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+
+        void refill(long now) {
+            final double rate = ModConfigs.COMMON.settingsPerSecond.get();
+            tokens = Math.min(ModConfigs.COMMON.settingsBurst.get(), tokens + (now - lastRefillNanos) / 1_000_000_000.0 * rate);
+            lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * Runs {@code apply} now if the player has a token, otherwise defers it, replacing an earlier
+     * deferred packet of the same kind for this radio. The action gets the player (re-checked
+     * online when deferred) and must validate everything else itself.
+     */
+    public static void submit(ServerPlayer player, BlockPos pos, CustomPacketPayload.Type<?> kind, Consumer<ServerPlayer> apply) {
+        final long now = System.nanoTime();
+        final Bucket bucket = BUCKETS.computeIfAbsent(player.getUUID(), k -> new Bucket(ModConfigs.COMMON.settingsBurst.get(), now));
+        bucket.refill(now);
+
+        final Key key = new Key(pos.asLong(), kind);
+        // Something for this radio is already waiting: keep order, just replace it.
+        if (bucket.tokens < 1.0 || bucket.pending.containsKey(key)) {
+            throttled++;
+            if (bucket.pending.put(key, apply) != null) {
+                merged++;
+            } else if (bucket.pending.size() > MAX_PENDING_RADIOS) {
+                bucket.pending.removeFirst();
+                dropped++;
+            }
+            return;
+        }
+
+        bucket.tokens -= 1.0;
+        applied++;
+        apply.accept(player);
+    }
+
+    /**
+     * A packet that matches the radio already: costs no token. Anything of that kind still deferred
+     * for the radio is older and discarded, so a change that was reverted meanwhile isn't applied late.
+     */
+    public static void skipUnchanged(ServerPlayer player, BlockPos pos, CustomPacketPayload.Type<?> kind) {
+        unchanged++;
+        final Bucket bucket = BUCKETS.get(player.getUUID());
+        if (bucket != null) bucket.pending.remove(new Key(pos.asLong(), kind));
+    }
+
+    /** Runs deferred actions as tokens refill. */
+    public static void tick(MinecraftServer server) {
+        if (BUCKETS.isEmpty()) return;
+        final long now = System.nanoTime();
+
+        final Iterator<Map.Entry<UUID, Bucket>> it = BUCKETS.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<UUID, Bucket> e = it.next();
+            final Bucket bucket = e.getValue();
+            if (bucket.pending.isEmpty()) continue;
+
+            final ServerPlayer player = server.getPlayerList().getPlayer(e.getKey());
+            if (player == null) {
+                it.remove();
+                continue;
+            }
+
+            bucket.refill(now);
+            while (bucket.tokens >= 1.0 && !bucket.pending.isEmpty()) {
+                bucket.tokens -= 1.0;
+                applied++;
+                bucket.pending.removeFirst().accept(player);
+            }
+        }
+    }
+
+    public static void onLogout(UUID player) {
+        BUCKETS.remove(player);
+    }
+
+    /** Server stopping. */
+    public static void clear() {
+        BUCKETS.clear();
+    }
+
+    /** Packets applied (directly or after a delay). */
+    public static long getApplied() {
+        return applied;
+    }
+
+    /** Packets that found no token (or a pending entry for their radio) and were deferred. */
+    public static long getThrottled() {
+        return throttled;
+    }
+
+    /** Deferred packets replaced by a newer one of the same kind for the same radio. */
+    public static long getMerged() {
+        return merged;
+    }
+
+    /** Deferred packets discarded because too many radios were waiting. */
+    public static long getDropped() {
+        return dropped;
+    }
+
+    /** Packets that matched the radio's current settings and were skipped. */
+    public static long getUnchanged() {
+        return unchanged;
+    }
+}
@@ -0,0 +1,74 @@
+package com.avilixradiomod.server.sync;
+
+import com.avilixradiomod.blockentity.RadioBlockEntity;
+import com.avilixradiomod.blockentity.SpeakerBlockEntity;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * URL table ids each player has been sent, so a URL lookup only resolves those.
+ *
+ * Block entities sync their URL as an id and the client asks for the string. Without this check a
+ * client could walk the id space and read every URL ever pasted on the server. Ids are granted
+ * where they leave the server: chunk data ({@link #grantChunk}), block entity updates
+ * ({@link ChangeBuffer}, {@link #grantTracking} for a freshly placed radio) and audible emitters
+ * ({@link AudibilityService}). Server thread only.
+ */
+public final class UrlGrants {
+    private UrlGrants() {}
+
+    private static final Map<UUID, IntOpenHashSet> GRANTED = new HashMap<>();
+
+    public static void grant(ServerPlayer player, int id) {
+        if (id != 0) GRANTED.computeIfAbsent(player.getUUID(), k -> new IntOpenHashSet()).add(id);
+    }
+
+    /** URL id of a radio or speaker about to be sent to this player (other block entities: nothing). */
+    public static void grant(ServerPlayer player, BlockEntity be) {
+        grant(player, urlId(be));
+    }
+
+    /** Chunk sent to the player: every radio and speaker URL in it. */
+    public static void grantChunk(ServerPlayer player, LevelChunk chunk) {
+        for (BlockEntity be : chunk.getBlockEntities().values()) grant(player, be);
+    }
+
+    /** The block entity's data goes to every player tracking its chunk (vanilla block change broadcast). */
+    public static void grantTracking(BlockEntity be) {
+        if (!(be.getLevel() instanceof ServerLevel level)) return;
+        final int id = urlId(be);
+        if (id == 0) return;
+        for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(new ChunkPos(be.getBlockPos()), false)) {
+            grant(player, id);
+        }
+    }
+
+    public static boolean isGranted(ServerPlayer player, int id) {
+        if (id == 0) return true;
+        final IntOpenHashSet ids = GRANTED.get(player.getUUID());
+        return ids != null && ids.contains(id);
+    }
+
+    private static int urlId(BlockEntity be) {
+        if (be instanceof RadioBlockEntity radio) return radio.getUrlId();
+        if (be instanceof SpeakerBlockEntity speaker) return speaker.getCachedUrlId();
+        return 0;
+    }
+
+    public static void onLogout(UUID player) {
+        GRANTED.remove(player);
+    }
+
+    /** Server stopping. */
+    public static void clear() {
+        GRANTED.clear();
+    }
+}
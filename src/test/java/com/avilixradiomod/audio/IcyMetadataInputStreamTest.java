@@ -0,0 +1,168 @@
+package com.avilixradiomod.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IcyMetadataInputStreamTest {
+
+    private static final int META_INT = 16;
+
+    @Test
+    void audioIsPassedThroughAndTitleParsed() throws IOException {
+        final byte[] audio = audio(META_INT * 3);
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio, 0, META_INT);
+        writeMeta(icy, "StreamTitle='Artist - Song';StreamUrl='';");
+        icy.write(audio, META_INT, META_INT);
+        writeMeta(icy, "");
+        icy.write(audio, META_INT * 2, META_INT);
+
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new ByteArrayInputStream(icy.toByteArray()), META_INT);
+        assertArrayEquals(audio, in.readAllBytes());
+        assertEquals("Artist - Song", in.nowPlaying().title());
+    }
+
+    @Test
+    void metadataSplitAcrossReads() throws IOException {
+        final byte[] audio = audio(META_INT * 2);
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio, 0, META_INT);
+        writeMeta(icy, "StreamTitle='A rather long title that spans several sixteen byte rows';");
+        icy.write(audio, META_INT, META_INT);
+
+        // The source hands out at most 3 bytes per read, so the length byte, the block and the
+        // audio all arrive in pieces.
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new Trickle(icy.toByteArray(), 3), META_INT);
+        assertArrayEquals(audio, in.readAllBytes());
+        assertEquals("A rather long title that spans several sixteen byte rows", in.nowPlaying().title());
+    }
+
+    @Test
+    void zeroLengthBlockKeepsTheTitle() throws IOException {
+        final byte[] audio = audio(META_INT * 3);
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio, 0, META_INT);
+        writeMeta(icy, "StreamTitle='First';");
+        icy.write(audio, META_INT, META_INT);
+        writeMeta(icy, "");
+        icy.write(audio, META_INT * 2, META_INT);
+
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new ByteArrayInputStream(icy.toByteArray()), META_INT);
+        assertArrayEquals(Arrays.copyOf(audio, META_INT * 2), in.readNBytes(META_INT * 2));
+        final NowPlaying first = in.nowPlaying();
+        assertEquals("First", first.title());
+
+        // Next block is empty: same snapshot, not a new one.
+        assertEquals(META_INT, in.readNBytes(META_INT).length);
+        assertSame(first, in.nowPlaying());
+    }
+
+    @Test
+    void readsNeverCrossTheMetaintBoundary() throws IOException {
+        final byte[] audio = audio(META_INT * 2);
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio, 0, META_INT);
+        writeMeta(icy, "StreamTitle='x';");
+        icy.write(audio, META_INT, META_INT);
+
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new ByteArrayInputStream(icy.toByteArray()), META_INT);
+        final byte[] buf = new byte[META_INT * 4];
+        assertEquals(META_INT - 5, in.read(buf, 0, META_INT - 5));
+        assertEquals(5, in.read(buf, 0, buf.length), "stops at the boundary");
+        assertEquals(0, in.available(), "no audio left before the metadata block");
+        assertNull(in.nowPlaying());
+
+        assertEquals(META_INT, in.read(buf, 0, buf.length), "whole next interval, block stripped");
+        assertEquals("x", in.nowPlaying().title());
+        assertEquals(-1, in.read(buf, 0, buf.length));
+    }
+
+    @Test
+    void singleByteReadsAndSkipStayInSync() throws IOException {
+        final byte[] audio = audio(META_INT * 3);
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio, 0, META_INT);
+        writeMeta(icy, "StreamTitle='One';");
+        icy.write(audio, META_INT, META_INT);
+        writeMeta(icy, "StreamTitle='Two';");
+        icy.write(audio, META_INT * 2, META_INT);
+
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new ByteArrayInputStream(icy.toByteArray()), META_INT);
+        for (int i = 0; i < META_INT - 1; i++) assertEquals(audio[i] & 0xFF, in.read());
+        // The last byte of the first interval plus the whole second one.
+        assertEquals(META_INT + 1, in.skip(META_INT + 1));
+        assertEquals("One", in.nowPlaying().title());
+        assertEquals(audio[META_INT * 2] & 0xFF, in.read());
+        assertEquals("Two", in.nowPlaying().title());
+    }
+
+    @Test
+    void titlesWithQuotesAndSemicolons() throws IOException {
+        assertEquals("Guns N' Roses - Don't Cry", title("StreamTitle='Guns N' Roses - Don't Cry';StreamUrl='';"));
+        assertEquals("Artist; Other - Song", title("StreamTitle='Artist; Other - Song';"));
+        assertEquals("Rock';n'Roll", title("StreamTitle='Rock';n'Roll';StreamUrl='http://example.com/';"));
+        assertEquals("Rock';n'Roll", title("StreamTitle='Rock';n'Roll';"));
+        assertEquals("No terminator", title("StreamTitle='No terminator'"));
+        assertEquals("", title("StreamTitle='';"));
+    }
+
+    @Test
+    void blockWithoutTitleIsIgnored() throws IOException {
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio(META_INT), 0, META_INT);
+        writeMeta(icy, "StreamUrl='http://example.com/';");
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new ByteArrayInputStream(icy.toByteArray()), META_INT);
+        in.readAllBytes();
+        assertNull(in.nowPlaying());
+    }
+
+    private static String title(String meta) throws IOException {
+        final ByteArrayOutputStream icy = new ByteArrayOutputStream();
+        icy.write(audio(META_INT), 0, META_INT);
+        writeMeta(icy, meta);
+        final IcyMetadataInputStream in = new IcyMetadataInputStream(new ByteArrayInputStream(icy.toByteArray()), META_INT);
+        in.readAllBytes();
+        return in.nowPlaying().title();
+    }
+
+    private static byte[] audio(int len) {
+        final byte[] b = new byte[len];
+        for (int i = 0; i < len; i++) b[i] = (byte) (i * 7 + 1);
+        return b;
+    }
+
+    /** Length byte, then the text NUL-padded to a multiple of 16 (empty text = zero-length block). */
+    private static void writeMeta(ByteArrayOutputStream out, String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final int blocks = (bytes.length + 15) / 16;
+        out.write(blocks);
+        out.write(bytes, 0, bytes.length);
+        for (int i = bytes.length; i < blocks * 16; i++) out.write(0);
+    }
+
+    /** Returns at most {@code max} bytes per read, like a slow socket. */
+    private static final class Trickle extends FilterInputStream {
+        private final int max;
+
+        Trickle(byte[] data, int max) {
+            super(new ByteArrayInputStream(data));
+            this.max = max;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, Math.min(len, max));
+        }
+    }
+}
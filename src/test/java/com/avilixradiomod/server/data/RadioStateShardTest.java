@@ -0,0 +1,65 @@
+package com.avilixradiomod.server.data;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RadioStateShardTest {
+
+    private static final String URL_A = "https://radio.example.com/a.mp3";
+    private static final String URL_B = "http://radio.example.com:8000/b";
+
+    @Test
+    void legacyShardIsSavedColumnarWithoutLoss() {
+        final Map<Long, RadioWorldState.Entry> expected = new HashMap<>();
+        expected.put(BlockPos.asLong(0, 64, 0), new RadioWorldState.Entry(URL_A, true, 100));
+        expected.put(BlockPos.asLong(1, -60, 15), new RadioWorldState.Entry(URL_A, false, 0));
+        expected.put(BlockPos.asLong(17, 300, 3), new RadioWorldState.Entry(URL_B, true, 37));
+        expected.put(BlockPos.asLong(511, 0, 511), new RadioWorldState.Entry("", false, 55));
+
+        final ListTag list = new ListTag();
+        expected.forEach((pos, e) -> list.add(legacyEntry(pos, e.url(), e.playing(), e.volume())));
+        // Old saves omit Volume for radios that were never turned down.
+        final long noVolume = BlockPos.asLong(20, 70, 20);
+        final CompoundTag old = new CompoundTag();
+        old.putLong("Pos", noVolume);
+        old.putString("Url", URL_B);
+        old.putBoolean("Playing", true);
+        list.add(old);
+        expected.put(noVolume, new RadioWorldState.Entry(URL_B, true, 100));
+
+        final CompoundTag legacy = new CompoundTag();
+        legacy.put("Entries", list);
+
+        final RadioStateShard loaded = RadioStateShard.load(legacy, null);
+        assertEquals(expected, loaded.byPos);
+
+        final CompoundTag saved = loaded.save(new CompoundTag(), null);
+        assertEquals(2, saved.getInt("Format"));
+        assertFalse(saved.contains("Entries"));
+        assertEquals(2 + 1, saved.getList("Urls", Tag.TAG_STRING).size(), "URLs are stored once each");
+
+        final RadioStateShard reloaded = RadioStateShard.load(saved, null);
+        assertEquals(expected, reloaded.byPos);
+        assertArrayEquals(new long[]{BlockPos.asLong(17, 300, 3)}, reloaded.positionsIn(ChunkPos.asLong(1, 0)));
+    }
+
+    private static CompoundTag legacyEntry(long pos, String url, boolean playing, int volume) {
+        final CompoundTag c = new CompoundTag();
+        c.putLong("Pos", pos);
+        c.putString("Url", url);
+        c.putBoolean("Playing", playing);
+        c.putInt("Volume", volume);
+        return c;
+    }
+}
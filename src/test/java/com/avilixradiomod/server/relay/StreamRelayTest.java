@@ -0,0 +1,92 @@
+package com.avilixradiomod.server.relay;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamRelayTest {
+
+    @Test
+    void loopbackAndUnspecifiedAreRefused() throws Exception {
+        refused("127.0.0.1");
+        refused("127.255.0.9");
+        refused("::1");
+        refused("0.0.0.0");
+        refused("0.1.2.3");
+        refused("::");
+    }
+
+    @Test
+    void privateRangesAreRefused() throws Exception {
+        refused("10.0.0.1");
+        refused("172.16.0.1");
+        refused("172.31.255.254");
+        refused("192.168.1.1");
+        refused("fc00::1");
+        refused("fd12:3456:789a::1");
+    }
+
+    @Test
+    void linkLocalIsRefused() throws Exception {
+        refused("169.254.169.254"); // cloud metadata endpoint
+        refused("169.254.0.1");
+        refused("fe80::1");
+    }
+
+    @Test
+    void carrierGradeNatIsRefused() throws Exception {
+        refused("100.64.0.1");
+        refused("100.127.255.254");
+        allowed("100.63.255.255");
+        allowed("100.128.0.1");
+    }
+
+    @Test
+    void reservedAndMulticastAreRefused() throws Exception {
+        refused("192.0.0.8");
+        refused("198.18.0.1");
+        refused("198.19.255.255");
+        refused("224.0.0.1");
+        refused("240.0.0.1");
+        refused("255.255.255.255");
+        refused("ff02::1");
+    }
+
+    @Test
+    void ipv4MappedIpv6IsCheckedAsIpv4() throws Exception {
+        refused("::ffff:127.0.0.1");
+        refused("::ffff:10.0.0.1");
+        refused("::ffff:169.254.169.254");
+        allowed("::ffff:93.184.216.34");
+    }
+
+    @Test
+    void embeddedIpv4IsChecked() throws Exception {
+        refused("2002:7f00:1::"); // 6to4 of 127.0.0.1
+        refused("2002:c0a8:101::1"); // 6to4 of 192.168.1.1
+        refused("64:ff9b::a00:1"); // NAT64 of 10.0.0.1
+        allowed("2002:5db8:d822::1"); // 6to4 of 93.184.216.34
+        allowed("64:ff9b::5db8:d822");
+    }
+
+    @Test
+    void publicAddressesAreAllowed() throws Exception {
+        allowed("93.184.216.34");
+        allowed("8.8.8.8");
+        allowed("172.32.0.1");
+        allowed("192.169.0.1");
+        allowed("2606:2800:220:1:248:1893:25c8:1946");
+    }
+
+    private static void refused(String literal) throws UnknownHostException {
+        assertFalse(StreamRelay.isPublicAddress(InetAddress.getByName(literal)), literal);
+    }
+
+    private static void allowed(String literal) throws UnknownHostException {
+        assertTrue(StreamRelay.isPublicAddress(InetAddress.getByName(literal)), literal);
+    }
+}